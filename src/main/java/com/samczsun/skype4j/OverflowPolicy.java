@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.samczsun.skype4j;
+
+/**
+ * What to do with incoming events when more of them are waiting to be handled than the event queue can hold
+ */
+public enum OverflowPolicy {
+    /**
+     * Stop polling until there is room again. Skype keeps the events on its side in the meantime
+     */
+    BLOCK,
+    /**
+     * Discard typing notifications while the queue is full, and block for every other event
+     */
+    DROP_LOW_PRIORITY,
+    /**
+     * Write events to a temporary file while the queue is full, and handle them in order once there is room again
+     */
+    SPILL_TO_DISK
+}
@@ -21,12 +21,14 @@ import com.samczsun.skype4j.chat.GroupChat;
 import com.samczsun.skype4j.events.EventDispatcher;
 import com.samczsun.skype4j.exceptions.*;
 import com.samczsun.skype4j.exceptions.handler.ErrorSource;
+import com.samczsun.skype4j.metrics.MetricsRegistry;
 import com.samczsun.skype4j.participants.info.BotInfo;
 import com.samczsun.skype4j.participants.info.Contact;
 import java.io.IOException;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
 /**
@@ -104,6 +106,14 @@ public interface Skype {
      */
     Chat getOrLoadChat(String name) throws ConnectionException, ChatNotFoundException, Exception;
 
+    /**
+     * Get a chat, and if said chat doesn't exist, load it without blocking the calling thread
+     *
+     * @param name The name of the chat
+     * @return A future which completes with the chat, or exceptionally if it could not be loaded
+     */
+    CompletableFuture<Chat> getOrLoadChatAsync(String name);
+
     /**
      * Join the chat with the given id in the format of 19:xxxxx@thread.skype
      *
@@ -124,6 +134,14 @@ public interface Skype {
      */
     List<Chat> loadMoreChats(int amount) throws ConnectionException;
 
+    /**
+     * Load amount of chats in the past without blocking the calling thread
+     *
+     * @param amount The amount of chats
+     * @return A future which completes with the chats loaded
+     */
+    CompletableFuture<List<Chat>> loadMoreChatsAsync(int amount);
+
     /**
      * Get a contact based on the username. The contact must already be loaded
      *
@@ -150,6 +168,14 @@ public interface Skype {
      */
     Contact getOrLoadContact(String username) throws ConnectionException;
 
+    /**
+     * Get a contact, and if said contact doesn't exist, load it without blocking the calling thread
+     *
+     * @param username The username of the contact
+     * @return A future which completes with the contact
+     */
+    CompletableFuture<Contact> getOrLoadContactAsync(String username);
+
     /**
      * Load all contacts!
      *
@@ -201,6 +227,15 @@ public interface Skype {
      */
     Logger getLogger();
 
+    /**
+     * Get the registry which records the latency, status and size of every request. Unless another registry was set
+     * through {@link SkypeBuilder#withMetricsRegistry(MetricsRegistry)}, measurements are kept in memory and can be
+     * inspected with {@link MetricsRegistry#snapshot()}
+     *
+     * @return The metrics registry
+     */
+    MetricsRegistry getMetricsRegistry();
+
     /**
      * Create a new group chat with the selected contacts. You will be automatically added to the group
      *
@@ -18,10 +18,19 @@ package com.samczsun.skype4j;
 
 import com.samczsun.skype4j.exceptions.ConnectionException;
 import com.samczsun.skype4j.exceptions.handler.ErrorHandler;
+import com.samczsun.skype4j.internal.ImageCache;
+import com.samczsun.skype4j.internal.ResponseCache;
+import com.samczsun.skype4j.internal.SkypeImpl;
 import com.samczsun.skype4j.internal.client.FullClient;
 import com.samczsun.skype4j.internal.client.GuestClient;
+import com.samczsun.skype4j.metrics.MetricsRegistry;
+import com.samczsun.skype4j.transport.EndpointFamily;
+import com.samczsun.skype4j.transport.RetryPolicy;
+import com.samczsun.skype4j.transport.Transport;
 
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Logger;
 
 /**
@@ -36,6 +45,16 @@ public class SkypeBuilder {
     private List<ErrorHandler> errorHandlers = new ArrayList<>();
     private Logger customLogger;
     private String chatId;
+    private Transport transport;
+    private ExecutorService asyncExecutor;
+    private RetryPolicy retryPolicy;
+    private int responseCacheSize = -1;
+    private ImageCache imageCache;
+    private int eventThreads;
+    private int eventQueueCapacity;
+    private OverflowPolicy overflowPolicy;
+    private MetricsRegistry metricsRegistry;
+    private Map<EndpointFamily, Limit> rateLimits = new EnumMap<>(EndpointFamily.class);
 
     /**
      * Construct a SkypeBuilder with the given username and password
@@ -101,6 +120,120 @@ public class SkypeBuilder {
         return this;
     }
 
+    /**
+     * Use a custom transport to open and release HTTP connections
+     *
+     * @param transport The transport to use
+     * @return The same SkypeBuilder
+     */
+    public SkypeBuilder withTransport(Transport transport) {
+        this.transport = transport;
+        return this;
+    }
+
+    /**
+     * Use a custom executor to run asynchronous requests. The executor will not be shut down by the API
+     *
+     * @param executor The executor to use
+     * @return The same SkypeBuilder
+     */
+    public SkypeBuilder withAsyncExecutor(ExecutorService executor) {
+        this.asyncExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Limit the rate at which requests are sent to a family of endpoints. Regardless of this setting, requests will
+     * be paused and retried when the server responds with 429 Too Many Requests
+     *
+     * @param family           The family of endpoints to limit
+     * @param permitsPerSecond The sustained amount of requests per second
+     * @param burst            The amount of requests which may be sent at once after a quiet period
+     * @return The same SkypeBuilder
+     */
+    public SkypeBuilder withRateLimit(EndpointFamily family, double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) throw new IllegalArgumentException("Rate and burst must be positive");
+        this.rateLimits.put(family, new Limit(permitsPerSecond, burst));
+        return this;
+    }
+
+    /**
+     * Set the policy used to retry idempotent requests which failed because of a transient error. Defaults to
+     * {@link RetryPolicy#defaults()}
+     *
+     * @param retryPolicy The policy to use, or {@link RetryPolicy#none()} to disable retrying
+     * @return The same SkypeBuilder
+     */
+    public SkypeBuilder withRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * Set how many responses are remembered for revalidation with conditional requests. Defaults to 256
+     *
+     * @param entries The maximum amount of cached responses, or 0 to disable caching
+     * @return The same SkypeBuilder
+     */
+    public SkypeBuilder withResponseCacheSize(int entries) {
+        if (entries < 0) throw new IllegalArgumentException("Size must not be negative");
+        this.responseCacheSize = entries;
+        return this;
+    }
+
+    /**
+     * Handle incoming events on several threads. Events of the same conversation are always handled one at a time
+     * and in order, events of different conversations may be handled in parallel. Defaults to a single thread, so
+     * listeners which are not thread-safe keep working
+     *
+     * @param threads The amount of threads handling events
+     * @return The same SkypeBuilder
+     */
+    public SkypeBuilder withEventThreads(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("Need at least one event thread");
+        this.eventThreads = threads;
+        return this;
+    }
+
+    /**
+     * Limit how many incoming events may wait to be handled, and choose what happens to further events when the
+     * limit is reached. Defaults to 10000 events and {@link OverflowPolicy#BLOCK}
+     *
+     * @param capacity       The maximum amount of events waiting to be handled
+     * @param overflowPolicy What to do with events beyond the capacity
+     * @return The same SkypeBuilder
+     */
+    public SkypeBuilder withEventQueue(int capacity, OverflowPolicy overflowPolicy) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+        if (overflowPolicy == null) throw new IllegalArgumentException("Overflow policy must not be null");
+        this.eventQueueCapacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        return this;
+    }
+
+    /**
+     * Set how avatars and chat pictures are cached. Defaults to 8 MB in memory only
+     *
+     * @param maxBytes  The maximum amount of encoded image bytes kept in memory
+     * @param directory A directory to keep images in as well, so they survive eviction and restarts, or null
+     * @return The same SkypeBuilder
+     */
+    public SkypeBuilder withImageCache(long maxBytes, Path directory) {
+        this.imageCache = new ImageCache(maxBytes, directory);
+        return this;
+    }
+
+    /**
+     * Record the latency, status and size of every request in the given registry instead of the default in-memory one
+     *
+     * @param metricsRegistry The registry to use
+     * @return The same SkypeBuilder
+     */
+    public SkypeBuilder withMetricsRegistry(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+        return this;
+    }
+
     /**
      * Join a particular chat as a guest. Will have no effect if a password is specified
      *
@@ -124,12 +257,51 @@ public class SkypeBuilder {
         if (resources.isEmpty()) {
             throw new IllegalArgumentException("No resources selected");
         }
+        SkypeImpl skype;
         if (password != null) {
-            return new FullClient(username, password, resources, customLogger, errorHandlers);
+            skype = new FullClient(username, password, resources, customLogger, errorHandlers);
         } else if (chatId != null) {
-            return new GuestClient(username, chatId, resources, customLogger, errorHandlers);
+            skype = new GuestClient(username, chatId, resources, customLogger, errorHandlers);
         } else {
             throw new IllegalArgumentException("No chat specified");
         }
+        if (transport != null) {
+            skype.setTransport(transport);
+        }
+        if (asyncExecutor != null) {
+            skype.setAsyncExecutor(asyncExecutor);
+        }
+        if (retryPolicy != null) {
+            skype.setRetryPolicy(retryPolicy);
+        }
+        if (metricsRegistry != null) {
+            skype.setMetricsRegistry(metricsRegistry);
+        }
+        if (responseCacheSize >= 0) {
+            skype.setResponseCache(new ResponseCache(responseCacheSize));
+        }
+        if (imageCache != null) {
+            skype.setImageCache(imageCache);
+        }
+        if (eventThreads > 0) {
+            skype.setEventThreads(eventThreads);
+        }
+        if (overflowPolicy != null) {
+            skype.setEventQueue(eventQueueCapacity, overflowPolicy);
+        }
+        for (Map.Entry<EndpointFamily, Limit> limit : rateLimits.entrySet()) {
+            skype.getRateLimiter().limit(limit.getKey(), limit.getValue().permitsPerSecond, limit.getValue().burst);
+        }
+        return skype;
+    }
+
+    private static class Limit {
+        private final double permitsPerSecond;
+        private final int burst;
+
+        private Limit(double permitsPerSecond, int burst) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+        }
     }
 }
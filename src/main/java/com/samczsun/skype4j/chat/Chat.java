@@ -25,12 +25,14 @@ import com.samczsun.skype4j.formatting.Message;
 import com.samczsun.skype4j.participants.Participant;
 import com.samczsun.skype4j.participants.info.Contact;
 import com.samczsun.skype4j.participants.User;
+import com.samczsun.skype4j.transport.ProgressListener;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a single chat. This can be a private message or a group chat.
@@ -54,6 +56,24 @@ public interface Chat {
      */
     ChatMessage sendMessage(String plainMessage) throws ConnectionException;
 
+    /**
+     * Sends a formatted message to this chat without blocking the calling thread.
+     *
+     * @param message The rich text to send
+     * @return A future which completes with the {@link ChatMessage} object representing the message,
+     * or exceptionally with a {@link ConnectionException}
+     */
+    CompletableFuture<ChatMessage> sendMessageAsync(Message message);
+
+    /**
+     * Sends a plain message to this chat without blocking the calling thread.
+     *
+     * @param plainMessage The plain message to send
+     * @return A future which completes with the {@link ChatMessage} object representing the message,
+     * or exceptionally with a {@link ConnectionException}
+     */
+    CompletableFuture<ChatMessage> sendMessageAsync(String plainMessage);
+
     /**
      * Sends a contact to this chat
      *
@@ -90,6 +110,25 @@ public interface Chat {
      */
     void sendFile(File file) throws ConnectionException;
 
+    /**
+     * Sends a file to this chat, streaming it from disk
+     *
+     * @param file     The file to send
+     * @param listener Notified as the file is uploaded, may be null
+     * @throws ConnectionException If an error occurs while connecting to the endpoint
+     */
+    void sendFile(File file, ProgressListener listener) throws ConnectionException;
+
+    /**
+     * Sends several files to this chat. Up to four files are uploaded at once, and the messages are posted in the
+     * order of the collection as soon as each file is ready
+     *
+     * @param files The files to send
+     * @throws ConnectionException If an error occurs while connecting to the endpoint. Files before the one which
+     *                             failed will already have been sent
+     */
+    void sendFiles(Collection<File> files) throws ConnectionException;
+
     /**
      * Sends a Moji to this chat
      *
@@ -175,6 +214,14 @@ public interface Chat {
      */
     List<ChatMessage> loadMoreMessages(int amount) throws ConnectionException;
 
+    /**
+     * Load more chatmessages from the past without blocking the calling thread
+     *
+     * @param amount The amount of messages to load
+     * @return A future which completes with the loaded messages
+     */
+    CompletableFuture<List<ChatMessage>> loadMoreMessagesAsync(int amount);
+
     /*
      * Send the typing notification. Note that this will spawn a new thread so supplying an ErrorHandler is recommended
      * If typing is already being sent no action will be taken.
@@ -22,6 +22,7 @@ import com.samczsun.skype4j.participants.info.Contact;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 /**
@@ -45,13 +46,22 @@ public interface GroupChat extends Chat {
 
     /**
      * Get the current picture of the chat.
-     * The result will be cached unless the picture is updated
+     * The encoded picture will be cached unless the picture is updated, and decoded again on every call
      *
      * @return The current picture
      * @throws ConnectionException If an error occurs while fetching the picture.
      */
     BufferedImage getPicture() throws ConnectionException;
 
+    /**
+     * Get the current picture of the chat, encoded as served by Skype.
+     * The result will be cached unless the picture is updated
+     *
+     * @return A read-only view of the encoded picture, or null if the chat has no picture
+     * @throws ConnectionException If an error occurs while fetching the picture.
+     */
+    ByteBuffer getPictureData() throws ConnectionException;
+
     /**
      * Set the image for this chat. This will occur in real time
      * WARNING: This endpoint is not officially supported by Skype.
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.chat.objects;
+
+import com.samczsun.skype4j.exceptions.ConnectionException;
+
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * Represents content stored on the Skype media servers. Downloads wait for the server to finish processing the
+ * content, then stream the raw bytes without decoding them
+ */
+public interface Downloadable {
+    /**
+     * Download the content
+     *
+     * @param out The stream to write the content to. It will not be closed
+     * @return The amount of bytes written
+     * @throws ConnectionException If an error occurs while connecting to the endpoint
+     */
+    long download(OutputStream out) throws ConnectionException;
+
+    /**
+     * Download the content starting at the given offset, such as to resume an interrupted download
+     *
+     * @param out    The stream to write the content to. It will not be closed
+     * @param offset The amount of bytes to skip
+     * @return The amount of bytes written
+     * @throws ConnectionException If an error occurs while connecting to the endpoint
+     */
+    long download(OutputStream out, long offset) throws ConnectionException;
+
+    /**
+     * Download the content into a file. If the file already exists, the download resumes after its current contents
+     *
+     * @param path The file to write to
+     * @return The amount of bytes written
+     * @throws ConnectionException If an error occurs while connecting to the endpoint or writing the file
+     */
+    long download(Path path) throws ConnectionException;
+}
@@ -18,9 +18,10 @@ package com.samczsun.skype4j.chat.objects;
 
 /**
  * Represents a file which has been sent by a user in the chat
- * Note that downloading files is not supported on Skype for Web, even if the chat is cloud-based
+ * Files shared through the cloud can be downloaded. Files sent peer to peer cannot, as downloading those is not
+ * supported on Skype for Web
  */
-public interface ReceivedFile {
+public interface ReceivedFile extends Downloadable {
 
     /**
      * Get the name of the file which has been sent
@@ -39,4 +40,10 @@ public interface ReceivedFile {
      * @return The tid
      */
     long getTid();
+
+    /**
+     * Check whether this file was shared through the cloud and can be downloaded
+     * @return Whether the download methods are supported
+     */
+    boolean isDownloadable();
 }
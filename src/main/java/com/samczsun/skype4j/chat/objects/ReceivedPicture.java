@@ -0,0 +1,42 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.chat.objects;
+
+import com.samczsun.skype4j.exceptions.ConnectionException;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Represents a picture which has been sent by a user in the chat
+ */
+public interface ReceivedPicture extends Downloadable {
+    /**
+     * Get the original name of the picture
+     * @return The name of the picture
+     */
+    String getName();
+
+    /**
+     * Download and decode the picture. Use {@link #download(java.io.OutputStream)} to get the bytes without decoding
+     * @return The decoded picture
+     * @throws ConnectionException If an error occurs while connecting to the endpoint
+     * @throws IOException If the picture could not be decoded
+     */
+    BufferedImage decode() throws ConnectionException, IOException;
+}
@@ -16,6 +16,8 @@
 
 package com.samczsun.skype4j.events;
 
+import java.util.concurrent.Executor;
+
 /**
  * Represents the event dispatcher that will dispatch events to all registered listeners
  */
@@ -27,6 +29,18 @@ public interface EventDispatcher {
      */
     void registerListener(Listener listener);
 
+    /**
+     * Register an executor for listeners which name it in {@link EventHandler#executor()}. The executor must be
+     * registered before such listeners, and will not be shut down by the API. Dispatchers which do not support named
+     * executors throw an {@link UnsupportedOperationException}
+     *
+     * @param name     The name listeners refer to the executor by
+     * @param executor The executor to call the listeners on
+     */
+    default void registerExecutor(String name, Executor executor) {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support named executors");
+    }
+
     /**
      * Notify all listeners that an event has occurred
      *
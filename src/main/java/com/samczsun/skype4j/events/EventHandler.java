@@ -19,7 +19,36 @@ package com.samczsun.skype4j.events;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 
+/**
+ * Marks a method of a {@link Listener} which receives events. The method must be public and take a single event
+ */
 @Retention(RetentionPolicy.RUNTIME)
 public @interface EventHandler {
+    /**
+     * @return When this method is called relative to other listeners of the same event
+     */
+    EventPriority priority() default EventPriority.NORMAL;
+
+    /**
+     * Call this method on a separate pool instead of the thread handling events, so a slow listener does not hold up
+     * other listeners and events. Asynchronous listeners may receive events out of order and concurrently. When the
+     * pool has fallen too far behind, the listener is called on the thread handling events instead, which slows down
+     * polling until the pool catches up
+     *
+     * @return Whether to call this method asynchronously
+     */
+    boolean async() default false;
+
+    /**
+     * Call this method asynchronously on an executor registered with {@link EventDispatcher#registerExecutor}
+     * instead of the default pool. Implies {@link #async()}
+     *
+     * @return The name of the executor, or an empty string to use the default pool
+     */
+    String executor() default "";
 
+    /**
+     * @return Whether to skip this method for {@link Cancellable} events which have already been cancelled
+     */
+    boolean ignoreCancelled() default false;
 }
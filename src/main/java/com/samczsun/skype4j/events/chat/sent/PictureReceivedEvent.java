@@ -17,29 +17,51 @@
 package com.samczsun.skype4j.events.chat.sent;
 
 import com.samczsun.skype4j.chat.Chat;
+import com.samczsun.skype4j.chat.objects.ReceivedPicture;
 import com.samczsun.skype4j.events.chat.ChatEvent;
+import com.samczsun.skype4j.exceptions.ConnectionException;
 import com.samczsun.skype4j.participants.Participant;
-import com.samczsun.skype4j.participants.User;
 
 import java.awt.image.BufferedImage;
+import java.io.IOException;
 
 public class PictureReceivedEvent extends ChatEvent {
     private final Participant sender;
     private final String originalName;
-    private final BufferedImage sentImage;
+    private final ReceivedPicture picture;
+    private BufferedImage sentImage;
 
-    public PictureReceivedEvent(Chat chat, Participant sender, String originalName, BufferedImage sent) {
+    public PictureReceivedEvent(Chat chat, Participant sender, String originalName, ReceivedPicture picture) {
         super(chat);
         this.sender = sender;
         this.originalName = originalName;
-        this.sentImage = sent;
+        this.picture = picture;
     }
 
     public Participant getSender() {
         return this.sender;
     }
 
-    public BufferedImage getSentImage() {
+    /**
+     * Get the picture, which can be downloaded without decoding it
+     *
+     * @return The picture
+     */
+    public ReceivedPicture getPicture() {
+        return this.picture;
+    }
+
+    /**
+     * Download and decode the picture. Nothing is downloaded until this is first called
+     *
+     * @return The decoded picture
+     * @throws ConnectionException If an error occurs while connecting to the endpoint
+     * @throws IOException If the picture could not be decoded
+     */
+    public synchronized BufferedImage getSentImage() throws ConnectionException, IOException {
+        if (this.sentImage == null) {
+            this.sentImage = picture.decode();
+        }
         return this.sentImage;
     }
 
@@ -17,6 +17,7 @@
 package com.samczsun.skype4j.exceptions;
 
 import com.samczsun.skype4j.internal.ExceptionHandler;
+import com.samczsun.skype4j.internal.StreamUtils;
 import com.samczsun.skype4j.internal.Utils;
 
 import java.io.ByteArrayInputStream;
@@ -45,9 +46,9 @@ public class ConnectionException extends SkypeException {
         messageBuilder.append("\t\t").append("Response: ").append(responseCode).append(" ").append(responseMessage).append(System.lineSeparator());
         InputStream readFrom = null;
         try {
-            readFrom = connection.getInputStream();
+            readFrom = StreamUtils.getInputStream(connection);
         } catch (IOException e) {
-            readFrom = connection.getErrorStream();
+            readFrom = StreamUtils.getErrorStream(connection);
         }
         messageBuilder.append("\t\t").append("Begin Message ")
                 .append(System.lineSeparator())
@@ -21,29 +21,40 @@ import com.eclipsesource.json.JsonObject;
 import com.eclipsesource.json.JsonValue;
 import com.samczsun.skype4j.exceptions.ConnectionException;
 import com.samczsun.skype4j.internal.utils.Encoder;
+import com.samczsun.skype4j.transport.EndpointFamily;
+import com.samczsun.skype4j.transport.RetryPolicy;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.logging.Level;
 
 public class Endpoints {
     private static Map<Class<?>, Converter<?>> converters = new HashMap<>();
 
     static {
-        converters.put(InputStream.class, HttpURLConnection::getInputStream);
+        converters.put(InputStream.class, StreamUtils::getInputStream);
         converters.put(HttpURLConnection.class, in -> in);
-        converters.put(JsonObject.class, in -> Utils.parseJsonObject(in.getInputStream()));
-        converters.put(JsonArray.class, in -> Utils.parseJsonArray(in.getInputStream()));
-        converters.put(String.class, in -> StreamUtils.readFully(in.getInputStream()));
-        converters.put(BufferedImage.class, in -> ImageIO.read(in.getInputStream()));
+        converters.put(JsonObject.class, in -> Utils.parseJsonObject(StreamUtils.getInputStream(in)));
+        converters.put(JsonArray.class, in -> Utils.parseJsonArray(StreamUtils.getInputStream(in)));
+        converters.put(String.class, in -> StreamUtils.readFully(StreamUtils.getInputStream(in)));
+        converters.put(byte[].class, in -> StreamUtils.readAllBytes(StreamUtils.getInputStream(in)));
+        converters.put(BufferedImage.class, in -> ImageIO.read(StreamUtils.getInputStream(in)));
     }
 
     public static <T> T convert(Class<?> type, SkypeImpl skype, HttpURLConnection in) throws IOException {
@@ -56,7 +67,7 @@ public class Endpoints {
             "https://api.skype.com/users/self/contacts/auth-request/%s/accept").skypetoken();
     public static final Endpoints GET_JOIN_URL = new Endpoints("https://api.scheduler.skype.com/threads").skypetoken();
     public static final Endpoints CHAT_INFO_URL = new Endpoints(
-            "https://%sclient-s.gateway.messenger.live.com/v1/threads/%s/?view=msnp24Equivalent").cloud().regtoken();
+            "https://%sclient-s.gateway.messenger.live.com/v1/threads/%s/?view=msnp24Equivalent").cloud().regtoken().coalesced();
     public static final Endpoints CONVERSATION_PROPERTY_SELF = new Endpoints(
             "https://%sclient-s.gateway.messenger.live.com/v1/users/ME/conversations/%s/properties?name=%s")
             .cloud()
@@ -105,14 +116,14 @@ public class Endpoints {
             "https://client-s.gateway.messenger.live.com/v1/users/ME/conversations?startTime=%s&pageSize=%s&view=msnp24Equivalent&targetType=Passport|Skype|Lync|Thread|PSTN|Agent")
             .regtoken();
     public static final Endpoints LOAD_MESSAGES = new Endpoints(
-            "https://client-s.gateway.messenger.live.com/v1/users/ME/conversations/%s/messages?startTime=0&pageSize=%s&view=msnp24Equivalent|supportsMessageProperties&targetType=Passport|Skype|Lync|Thread")
+            "https://client-s.gateway.messenger.live.com/v1/users/ME/conversations/%s/messages?startTime=%s&pageSize=%s&view=msnp24Equivalent|supportsMessageProperties&targetType=Passport|Skype|Lync|Thread")
             .regtoken();
     public static final Endpoints OBJECTS = new Endpoints("https://api.asm.skype.com/v1/objects").defaultHeader(
             "Authorization", AUTHORIZATION);
     public static final Endpoints UPLOAD_IMAGE = new Endpoints(
             "https://api.asm.skype.com/v1/objects/%s/content/%s").defaultHeader("Authorization", AUTHORIZATION);
     public static final Endpoints IMG_STATUS = new Endpoints(
-            "https://api.asm.skype.com/v1/objects/%s/views/%s/status").defaultHeader("Cookie", COOKIE);
+            "https://api.asm.skype.com/v1/objects/%s/views/%s/status").defaultHeader("Cookie", COOKIE).retry(RetryPolicy.none());
     public static final Endpoints FETCH_IMAGE = new Endpoints(
             "https://api.asm.skype.com/v1/objects/%s/views/%s").defaultHeader("Authorization", AUTHORIZATION);
     public static final Endpoints VISIBILITY = new Endpoints(
@@ -125,7 +136,8 @@ public class Endpoints {
             "https://api.skype.com/search/users/any?keyWord=%s&contactTypes[]=skype").skypetoken();
     public static final Endpoints GET_ALL_CONTACTS = new Endpoints(
             "https://contacts.skype.com/contacts/v2/users/SELF?delta=&reason=default")
-            .skypetoken();
+            .skypetoken()
+            .cacheable();
     public static final Endpoints GET_ALL_CONTACTS_STATUS = new Endpoints(
             "https://%sclient-s.gateway.messenger.live.com/v1/users/ME/contacts/ALL/presenceDocs/messagingService?%s").cloud()
             .regtoken();
@@ -148,13 +160,13 @@ public class Endpoints {
     @Deprecated
     public static final Endpoints CONTACT_INFO = new Endpoints(
             "https://api.skype.com/users/self/contacts/profiles").skypetoken();
-    public static final Endpoints PROFILE_INFO = new Endpoints("https://api.skype.com/users/self/profile").skypetoken();
-    public static final Endpoints PROFILE_INFO_CHAT_GROUP = new Endpoints("https://api.skype.com/users/batch/profiles").skypetoken();
+    public static final Endpoints PROFILE_INFO = new Endpoints("https://api.skype.com/users/self/profile").skypetoken().cacheable().coalesced();
+    public static final Endpoints PROFILE_INFO_CHAT_GROUP = new Endpoints("https://api.skype.com/users/batch/profiles").skypetoken().idempotent();
     public static final Endpoints RECONNECT_WEBSOCKET = new Endpoints(
             "https://go.trouter.io/v2/h?ccid=%s&dom=web.skype.com");
     public static final Endpoints ELIGIBILITY_CHECK = new Endpoints("https://web.skype.com/").skypetoken();
 
-    public static final Endpoints AGENT_INFO = new Endpoints("https://api.aps.skype.com/v1/agents?agentId=%s").skypetoken();
+    public static final Endpoints AGENT_INFO = new Endpoints("https://api.aps.skype.com/v1/agents?agentId=%s").skypetoken().cacheable().coalesced();
 
     // todo implement
     // what other scopes are there?
@@ -164,27 +176,66 @@ public class Endpoints {
     public static final Endpoints PETOKEN = new Endpoints("https://static.asm.skype.com/pes/v1/petoken").defaultHeader("Authorization", AUTHORIZATION);
     public static final Endpoints PROFILE = new Endpoints("https://api.skype.com/users/self/profile").skypetoken();
 
+    static {
+        for (Field field : Endpoints.class.getDeclaredFields()) {
+            if (field.getType() == Endpoints.class && Modifier.isStatic(field.getModifiers())) {
+                try {
+                    ((Endpoints) field.get(null)).name = field.getName();
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
     private boolean requiresCloud;
     private boolean requiresRegToken;
     private boolean requiresSkypeToken;
+    private boolean idempotent;
+    private boolean cacheable;
+    private boolean coalesced;
+    private RetryPolicy retryPolicy;
 
     private Map<String, Provider<String>> providers = new HashMap<>();
 
+    private String name;
     private String url;
+    private UrlTemplate template;
+    private EndpointFamily family;
+
+    public String name() {
+        return this.name;
+    }
 
     public String url() {
         return this.url;
     }
 
+    public EndpointFamily family() {
+        return this.family;
+    }
+
     private Endpoints(String url) {
+        this(url, UrlTemplate.compile(url));
+    }
+
+    private Endpoints(String url, UrlTemplate template) {
         this.url = url;
+        this.template = template;
+        this.family = EndpointFamily.forUrl(url);
     }
 
     public static EndpointConnection<HttpURLConnection> custom(String url, SkypeImpl skype, String... args) {
         if (skype.isShutdownRequested()) {
             throw new IllegalStateException("API is shut down");
         }
-        return new EndpointConnection(new Endpoints(url), skype, args).as(HttpURLConnection.class);
+        Endpoints endpoint = new Endpoints(url, null);
+        try {
+            endpoint.name = "custom:" + new URL(url).getHost();
+        } catch (MalformedURLException e) {
+            endpoint.name = "custom";
+        }
+        return new EndpointConnection(endpoint, skype, args).as(HttpURLConnection.class);
     }
 
     public EndpointConnection<HttpURLConnection> open(SkypeImpl skype, Object... args) {
@@ -209,12 +260,34 @@ public class Endpoints {
         return this;
     }
 
+    private Endpoints idempotent() {
+        this.idempotent = true;
+        return this;
+    }
+
+    private Endpoints cacheable() {
+        this.cacheable = true;
+        return this;
+    }
+
+    private Endpoints coalesced() {
+        this.coalesced = true;
+        return this;
+    }
+
+    private Endpoints retry(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
     private Endpoints defaultHeader(String key, Provider<String> val) {
         this.providers.put(key, val);
         return this;
     }
 
     public static class EndpointConnection<E_TYPE> {
+        private static final int MAX_THROTTLED_RETRIES = 5;
+
         private Class<E_TYPE> clazz = (Class<E_TYPE>) HttpURLConnection.class;
         private Endpoints endpoint;
         private SkypeImpl skype;
@@ -227,6 +300,8 @@ public class Endpoints {
         private boolean dontConnect;
         private boolean redirect = true;
         private boolean timeout = true;
+        private RetryPolicy retryPolicy;
+        private boolean cacheable;
 
         private EndpointConnection(Endpoints endpoint, SkypeImpl skype, Object[] args) {
             this.endpoint = endpoint;
@@ -269,6 +344,20 @@ public class Endpoints {
             return on(check, (connection) -> convert(clazz, skype, connection));
         }
 
+        public EndpointConnection<E_TYPE> retry(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Revalidate GET responses against the client's response cache. When the server reports that the resource
+         * was not modified, the previously decoded value is returned, or null when reading as an InputStream
+         */
+        public EndpointConnection<E_TYPE> cacheable() {
+            this.cacheable = true;
+            return this;
+        }
+
         public EndpointConnection<E_TYPE> noRedirects() {
             this.redirect = false;
             return this;
@@ -316,11 +405,51 @@ public class Endpoints {
             return header("Content-Type", "application/json").connect("PUT", json.toString());
         }
 
+        public CompletableFuture<E_TYPE> getAsync() {
+            return skype.supplyAsync(this::get);
+        }
+
+        public CompletableFuture<E_TYPE> deleteAsync() {
+            return skype.supplyAsync(this::delete);
+        }
+
+        public CompletableFuture<E_TYPE> postAsync() {
+            return skype.supplyAsync(this::post);
+        }
+
+        public CompletableFuture<E_TYPE> postAsync(String data) {
+            return skype.supplyAsync(() -> post(data));
+        }
+
+        public CompletableFuture<E_TYPE> postAsync(JsonValue json) {
+            return skype.supplyAsync(() -> post(json));
+        }
+
+        public CompletableFuture<E_TYPE> putAsync() {
+            return skype.supplyAsync(this::put);
+        }
+
+        public CompletableFuture<E_TYPE> putAsync(String data) {
+            return skype.supplyAsync(() -> put(data));
+        }
+
+        public CompletableFuture<E_TYPE> putAsync(JsonValue json) {
+            return skype.supplyAsync(() -> put(json));
+        }
+
+        public CompletableFuture<E_TYPE> connectAsync(String method, byte[] rawData) {
+            return skype.supplyAsync(() -> connect(method, rawData));
+        }
+
         public E_TYPE connect(String method, String data) throws ConnectionException {
             return this.connect(method, data != null ? data.getBytes(StandardCharsets.UTF_8) : new byte[0]);
         }
 
         public E_TYPE connect(String method, byte[] rawData) throws ConnectionException {
+            return this.connect(method, rawData != null ? RequestBody.of(rawData) : null);
+        }
+
+        public E_TYPE connect(String method, RequestBody body) throws ConnectionException {
             if (!cookies.isEmpty()) {
                 header("Cookie", serializeCookies(cookies));
             }
@@ -330,83 +459,300 @@ public class Endpoints {
             if (endpoint.requiresSkypeToken) {
                 header("X-SkypeToken", skype.getSkypeToken());
             }
-            if (this.redirect) {
-                this.on(code -> (code >= 301 && code <= 303) || code == 307 || code == 308, connection -> {
-                    skype.updateCloud(connection.getHeaderField("Location"));
-                    this.url = new URL(connection.getHeaderField("Location"));
-                    return this.connect(method, rawData);
-                });
-            }
             for (Map.Entry<String, Provider<String>> provider : endpoint.providers.entrySet()) {
                 header(provider.getKey(), provider.getValue().provide(skype));
             }
-            HttpURLConnection connection = null;
-            try {
-                if (this.url == null) { //todo could fail if cloud is updated?
-                    String surl = endpoint.url;
-                    if (endpoint.requiresCloud) {
-                        Object[] format = new Object[args.length + 1];
-                        format[0] = skype.getCloud();
-                        for (int i = 1; i < format.length; i++) {
-                            format[i] = args[i - 1].toString();
+            if (clazz != HttpURLConnection.class && !headers.containsKey("Accept-Encoding")) {
+                // Converters decompress the body, raw connections are left to the caller
+                header("Accept-Encoding", StreamUtils.ACCEPT_ENCODING);
+            }
+            if (this.url == null) { //todo could fail if cloud is updated?
+                try {
+                    if (endpoint.template == null) {
+                        this.url = new URL(endpoint.url);
+                    } else if (endpoint.requiresCloud) {
+                        this.url = new URL(endpoint.template.renderWithPrefix(skype.getCloud(), args));
+                    } else {
+                        this.url = new URL(endpoint.template.render(args));
+                    }
+                } catch (IOException e) {
+                    throw ExceptionHandler.generateException(cause, e);
+                }
+            }
+            if (endpoint.coalesced && method.equals("GET") && !this.dontConnect && clazz != InputStream.class
+                    && clazz != HttpURLConnection.class) {
+                return (E_TYPE) skype.getRequestFlights()
+                        .execute(ResponseCache.key(this.url.toString(), clazz), () -> send(method, body));
+            }
+            return send(method, body);
+        }
+
+        private E_TYPE send(String method, RequestBody body) throws ConnectionException {
+            boolean repeatable = body == null || body.isRepeatable();
+            RetryPolicy retryPolicy = repeatable ? getRetryPolicy(method) : RetryPolicy.none();
+            boolean useCache = (this.cacheable || endpoint.cacheable) && method.equals("GET") && !this.dontConnect
+                    && clazz != HttpURLConnection.class;
+            int attempt = 1;
+            int throttled = 0;
+            while (true) {
+                HttpURLConnection connection = null;
+                MeteredConnection metered = null;
+                boolean discard = false;
+                long start = 0;
+                long firstByte = 0;
+                int status = -1;
+                IOException failure = null;
+                try {
+                    try {
+                        skype.getRateLimiter().acquire(endpoint.family);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Interrupted while waiting for rate limit");
+                    }
+                    start = System.nanoTime();
+                    connection = skype.getTransport().open(url);
+                    if (!this.dontConnect && clazz != HttpURLConnection.class) {
+                        connection = metered = new MeteredConnection(connection);
+                    }
+                    connection.setRequestMethod(method);
+                    connection.setInstanceFollowRedirects(false);
+                    if (this.timeout) {
+                        connection.setConnectTimeout(20000);
+                        connection.setReadTimeout(20000);
+                    }
+                    for (Map.Entry<String, String> ent : headers.entrySet()) {
+                        connection.setRequestProperty(ent.getKey(), ent.getValue());
+                    }
+                    ResponseCache.Entry cached = null;
+                    if (useCache) {
+                        cached = skype.getResponseCache().get(ResponseCache.key(url.toString(), clazz));
+                        if (cached != null) {
+                            if (cached.getETag() != null) {
+                                connection.setRequestProperty("If-None-Match", cached.getETag());
+                            }
+                            if (cached.getLastModified() != null) {
+                                connection.setRequestProperty("If-Modified-Since", cached.getLastModified());
+                            }
                         }
-                        surl = String.format(surl, format);
-                    } else if (args.length > 0) {
-                        Object[] format = new Object[args.length];
-                        for (int i = 0; i < format.length; i++) {
-                            format[i] = args[i].toString();
+                    }
+                    if (!method.equalsIgnoreCase("GET")) {
+                        connection.setDoOutput(true);
+                        if (body == null) {
+                            connection.getOutputStream().write(new byte[0]);
+                        } else if (body.isStreamed()) {
+                            if (body.length() >= 0) {
+                                connection.setFixedLengthStreamingMode(body.length());
+                            } else {
+                                connection.setChunkedStreamingMode(0);
+                            }
+                            try (OutputStream out = connection.getOutputStream()) {
+                                body.writeTo(out);
+                            }
+                        } else {
+                            body.writeTo(connection.getOutputStream());
                         }
-                        surl = String.format(surl, args);
                     }
-                    this.url = new URL(surl);
+                    if (!this.dontConnect) {
+                        if (connection.getHeaderField("Set-RegistrationToken") != null) {
+                            skype.setRegistrationToken(connection.getHeaderField("Set-RegistrationToken"));
+                        }
+                        int code = connection.getResponseCode();
+                        firstByte = System.nanoTime() - start;
+                        status = code;
+                        if (code == 429) {
+                            skype.getRateLimiter().pause(endpoint.family, RateLimiter.parseRetryAfter(connection.getHeaderField("Retry-After")));
+                            if (repeatable && throttled++ < MAX_THROTTLED_RETRIES) {
+                                discard = true;
+                                continue;
+                            }
+                        }
+                        if (this.redirect && repeatable && isRedirect(code) && !isHandled(code)) {
+                            skype.updateCloud(connection.getHeaderField("Location"));
+                            this.url = new URL(connection.getHeaderField("Location"));
+                            discard = true;
+                            continue;
+                        }
+                        if (code == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                            discard = true;
+                            return (E_TYPE) cached.getValue();
+                        }
+                        if (attempt < retryPolicy.getMaxAttempts() && retryPolicy.isRetryable(code) && !isHandled(code)) {
+                            discard = true;
+                            backoff(retryPolicy, ++attempt);
+                            continue;
+                        }
+                        for (Map.Entry<Predicate<Integer>, UncheckedFunction<E_TYPE>> entry : errors.entrySet()) {
+                            if (entry.getKey().test(code)) {
+                                try {
+                                    E_TYPE result = entry.getValue().apply(connection);
+                                    if (useCache && code == HttpURLConnection.HTTP_OK) {
+                                        result = store(connection, result);
+                                    }
+                                    return metered != null && result instanceof InputStream ? (E_TYPE) meter(metered, (InputStream) result) : result;
+                                } catch (Throwable t) {
+                                    Utils.sneakyThrow(t);
+                                }
+                            }
+                        }
+                        throw ExceptionHandler.generateException(cause == null ? this.url.toString() : cause, connection);
+                    } else if (HttpURLConnection.class.isAssignableFrom(clazz)) {
+                        return (E_TYPE) connection;
+                    } else {
+                        throw new IllegalArgumentException(
+                                "DontConnect requested but did not request cast to HttpURLConnection");
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                    if (attempt < retryPolicy.getMaxAttempts() && retryPolicy.isRetryable(e)) {
+                        discard = true;
+                        try {
+                            backoff(retryPolicy, ++attempt);
+                            continue;
+                        } catch (InterruptedIOException ignored) {
+                        }
+                    }
+                    throw ExceptionHandler.generateException(cause, e);
+                } finally {
+                    if (start != 0 && !this.dontConnect) {
+                        record(method, body, metered == null ? 0 : metered.take(), start, firstByte, status, failure);
+                    }
+                    if (connection != null && (discard || (clazz != InputStream.class && clazz != HttpURLConnection.class))) {
+                        // A connection which failed before the response arrived must not be drained
+                        skype.getTransport().release(metered == null ? connection : metered.getDelegate(), status != -1);
+                    }
                 }
-                connection = (HttpURLConnection) url.openConnection();
-                connection.setRequestMethod(method);
-                connection.setInstanceFollowRedirects(false);
-                if (this.timeout) {
-                    connection.setConnectTimeout(20000);
-                    connection.setReadTimeout(20000);
+            }
+        }
+
+        private void record(String method, RequestBody body, long bytesIn, long start, long firstByte, int status, IOException failure) {
+            long total = System.nanoTime() - start;
+            try {
+                if (status != -1) {
+                    skype.getMetricsRegistry().recordRequest(endpoint.name, method, status,
+                            body == null || method.equals("GET") ? 0 : Math.max(body.length(), 0), bytesIn,
+                            firstByte, total);
+                } else if (failure != null) {
+                    skype.getMetricsRegistry().recordFailure(endpoint.name, method, failure, total);
                 }
-                for (Map.Entry<String, String> ent : headers.entrySet()) {
-                    connection.setRequestProperty(ent.getKey(), ent.getValue());
+            } catch (RuntimeException e) {
+                skype.getLogger().log(Level.WARNING, "Metrics registry failed to record " + endpoint.name, e);
+            }
+        }
+
+        /**
+         * A streamed response is mostly read after the request was recorded, so the rest is reported once the caller
+         * reaches the end of the stream or closes it
+         */
+        private InputStream meter(MeteredConnection metered, InputStream in) {
+            return new FilterInputStream(in) {
+                @Override
+                public int read() throws IOException {
+                    return complete(super.read());
                 }
-                if (!method.equalsIgnoreCase("GET")) {
-                    connection.setDoOutput(true);
-                    if (rawData != null) {
-                        connection.getOutputStream().write(rawData);
-                    } else {
-                        connection.getOutputStream().write(new byte[0]);
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    return complete(super.read(b, off, len));
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        report();
                     }
                 }
-                if (!this.dontConnect) {
-                    if (connection.getHeaderField("Set-RegistrationToken") != null) {
-                        skype.setRegistrationToken(connection.getHeaderField("Set-RegistrationToken"));
+
+                private int complete(int read) {
+                    if (read == -1) {
+                        report();
                     }
-                    for (Map.Entry<Predicate<Integer>, UncheckedFunction<E_TYPE>> entry : errors.entrySet()) {
-                        if (entry.getKey().test(connection.getResponseCode())) {
-                            try {
-                                return entry.getValue().apply(connection);
-                            } catch (Throwable t) {
-                                Utils.sneakyThrow(t);
-                            }
+                    return read;
+                }
+
+                private void report() {
+                    long bytesIn = metered.take();
+                    if (bytesIn > 0) {
+                        try {
+                            skype.getMetricsRegistry().recordBytesIn(endpoint.name, bytesIn);
+                        } catch (RuntimeException e) {
+                            skype.getLogger().log(Level.WARNING, "Metrics registry failed to record " + endpoint.name, e);
                         }
                     }
-                    throw ExceptionHandler.generateException(cause == null ? this.url.toString() : cause, connection);
-                } else if (HttpURLConnection.class.isAssignableFrom(clazz)) {
-                    return (E_TYPE) connection;
-                } else {
-                    throw new IllegalArgumentException(
-                            "DontConnect requested but did not request cast to HttpURLConnection");
                 }
-            } catch (IOException e) {
-                throw ExceptionHandler.generateException(cause, e);
-            } finally {
-                if (clazz != InputStream.class && clazz != HttpURLConnection.class) {
-                    if (connection != null) {
-                        connection.disconnect();
+            };
+        }
+
+        private E_TYPE store(HttpURLConnection connection, E_TYPE result) {
+            String etag = connection.getHeaderField("ETag");
+            String lastModified = connection.getHeaderField("Last-Modified");
+            String cacheControl = connection.getHeaderField("Cache-Control");
+            String key = ResponseCache.key(url.toString(), clazz);
+            if ((etag == null && lastModified == null) || (cacheControl != null && cacheControl.contains("no-store"))) {
+                skype.getResponseCache().invalidate(key);
+                return result;
+            }
+            if (result instanceof InputStream) {
+                // Only remember the validators once the caller has seen the whole body, so callers which parse a
+                // stream have to read it to the end, see JsonStreamReader#endDocument
+                skype.getResponseCache().invalidate(key);
+                return (E_TYPE) new FilterInputStream((InputStream) result) {
+                    @Override
+                    public int read() throws IOException {
+                        return complete(super.read());
+                    }
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        return complete(super.read(b, off, len));
+                    }
+
+                    private int complete(int read) {
+                        if (read == -1) {
+                            skype.getResponseCache().put(key, etag, lastModified, null);
+                        }
+                        return read;
                     }
+                };
+            }
+            skype.getResponseCache().put(key, etag, lastModified, result);
+            return result;
+        }
+
+        private RetryPolicy getRetryPolicy(String method) {
+            if (this.retryPolicy != null) {
+                return this.retryPolicy;
+            }
+            if (endpoint.retryPolicy != null) {
+                return endpoint.retryPolicy;
+            }
+            if (endpoint.idempotent || method.equals("GET") || method.equals("PUT") || method.equals("DELETE")) {
+                return skype.getRetryPolicy();
+            }
+            return RetryPolicy.none();
+        }
+
+        private boolean isRedirect(int code) {
+            return (code >= 301 && code <= 303) || code == 307 || code == 308;
+        }
+
+        private boolean isHandled(int code) {
+            for (Predicate<Integer> check : errors.keySet()) {
+                if (check.test(code)) {
+                    return true;
                 }
             }
+            return false;
+        }
+
+        private void backoff(RetryPolicy retryPolicy, int attempt) throws InterruptedIOException {
+            try {
+                Thread.sleep(retryPolicy.getDelay(attempt));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to retry");
+            }
         }
 
         private String serializeCookies(Map<String, String> cookies) {
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.samczsun.skype4j.internal;
+
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import com.samczsun.skype4j.OverflowPolicy;
+import com.samczsun.skype4j.internal.utils.StripedExecutor;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Holds the events received by the poller until they have been handled. At most {@code capacity} events are handed
+ * to the executor at a time, and the {@link OverflowPolicy} decides what happens to the events beyond that
+ */
+public class EventQueue implements Closeable {
+    public static final int DEFAULT_CAPACITY = 10000;
+
+    private static final Pattern CONVERSATION = Pattern.compile("/(?:conversations|threads)/([^/]+)");
+
+    private final StripedExecutor executor;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final Consumer<JsonObject> handler;
+    private final Consumer<Throwable> errorHandler;
+    private final Semaphore permits;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private SpillFile spill;
+
+    /**
+     * @param executor     The executor which handles the events, in order per conversation
+     * @param capacity     The maximum amount of events handed to the executor at a time
+     * @param policy       What to do with events while the queue is full
+     * @param handler      Handles a single event
+     * @param errorHandler Notified when spilled events could not be read back and had to be discarded
+     */
+    public EventQueue(StripedExecutor executor, int capacity, OverflowPolicy policy, Consumer<JsonObject> handler,
+                      Consumer<Throwable> errorHandler) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.executor = executor;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.handler = handler;
+        this.errorHandler = errorHandler;
+        this.permits = new Semaphore(capacity);
+    }
+
+    /**
+     * Queue an event, blocking the calling thread if the policy says so
+     *
+     * @param event The event received by the poller
+     * @throws IOException          If the event could not be spilled to disk
+     * @throws InterruptedException If the calling thread was interrupted while waiting for room
+     */
+    public void offer(JsonObject event) throws IOException, InterruptedException {
+        switch (policy) {
+            case DROP_LOW_PRIORITY:
+                if (isLowPriority(event)) {
+                    if (!permits.tryAcquire()) {
+                        dropped.incrementAndGet();
+                        return;
+                    }
+                    break;
+                }
+                permits.acquire();
+                break;
+            case SPILL_TO_DISK:
+                synchronized (this) {
+                    // Once anything has been spilled, later events go after it so the order is kept
+                    if ((spill == null || spill.count == 0) && permits.tryAcquire()) {
+                        submit(event);
+                    } else {
+                        if (spill == null) {
+                            spill = new SpillFile();
+                        }
+                        spill.append(event);
+                    }
+                }
+                return;
+            default:
+                permits.acquire();
+        }
+        submit(event);
+    }
+
+    private void submit(JsonObject event) {
+        pending.incrementAndGet();
+        try {
+            executor.execute(partitionKey(event), () -> {
+                try {
+                    handler.accept(event);
+                } finally {
+                    pending.decrementAndGet();
+                    permits.release();
+                    if (policy == OverflowPolicy.SPILL_TO_DISK) {
+                        drain();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            permits.release();
+            throw e;
+        }
+    }
+
+    private synchronized void drain() {
+        if (spill == null) {
+            return;
+        }
+        try {
+            while (spill.count > 0 && permits.tryAcquire()) {
+                JsonObject event;
+                try {
+                    event = spill.poll();
+                } catch (IOException | RuntimeException e) {
+                    permits.release();
+                    dropped.addAndGet(spill.count);
+                    try {
+                        close();
+                    } catch (IOException ignored) {
+                    }
+                    errorHandler.accept(e);
+                    return;
+                }
+                submit(event);
+            }
+        } catch (RejectedExecutionException ignored) {
+            // Shutting down, the remaining events are discarded on close
+        }
+    }
+
+    /**
+     * @return The amount of events which have not been handled yet, including those spilled to disk
+     */
+    public synchronized long size() {
+        return pending.get() + (spill == null ? 0 : spill.count);
+    }
+
+    /**
+     * @return The amount of events currently spilled to disk
+     */
+    public synchronized long spilled() {
+        return spill == null ? 0 : spill.count;
+    }
+
+    /**
+     * @return The amount of events discarded so far
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Discard every spilled event and delete the spill file
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (spill != null) {
+            spill.close();
+            spill = null;
+        }
+    }
+
+    /**
+     * Typing notifications are only useful while they are fresh, so they may be dropped under pressure
+     */
+    static boolean isLowPriority(JsonObject eventObj) {
+        JsonValue resource = eventObj.get("resource");
+        if (resource == null || !resource.isObject()) {
+            return false;
+        }
+        String type = Utils.getString(resource.asObject(), "messagetype");
+        return "Control/Typing".equals(type) || "Control/ClearTyping".equals(type);
+    }
+
+    /**
+     * Get the conversation or thread an event belongs to, falling back to the resource it links to
+     */
+    public static String partitionKey(JsonObject eventObj) {
+        String link = null;
+        JsonValue resource = eventObj.get("resource");
+        if (resource != null && resource.isObject()) {
+            link = Utils.getString(resource.asObject(), "conversationLink");
+        }
+        if (link == null) {
+            link = Utils.getString(eventObj, "resourceLink");
+        }
+        if (link == null) {
+            return null;
+        }
+        Matcher matcher = CONVERSATION.matcher(link);
+        return matcher.find() ? matcher.group(1) : link;
+    }
+
+    /**
+     * A temporary file of length-prefixed events, read back in the order they were written
+     */
+    private static class SpillFile implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer length = ByteBuffer.allocate(4);
+        private long readPosition;
+        private long writePosition;
+        private long count;
+
+        private SpillFile() throws IOException {
+            this.channel = FileChannel.open(Files.createTempFile("skype4j-events", ".spill"), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        }
+
+        private void append(JsonObject event) throws IOException {
+            byte[] data = event.toString().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocate(4 + data.length);
+            buffer.putInt(data.length).put(data).flip();
+            while (buffer.hasRemaining()) {
+                writePosition += channel.write(buffer, writePosition);
+            }
+            count++;
+        }
+
+        private JsonObject poll() throws IOException {
+            length.clear();
+            read(length);
+            ByteBuffer buffer = ByteBuffer.allocate(length.getInt(0));
+            read(buffer);
+            if (--count == 0) {
+                // Everything has been read back, so start over instead of letting the file grow
+                channel.truncate(0);
+                readPosition = writePosition = 0;
+            }
+            return JsonObject.readFrom(new String(buffer.array(), StandardCharsets.UTF_8));
+        }
+
+        private void read(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, readPosition);
+                if (read < 0) {
+                    throw new EOFException("Spill file is truncated");
+                }
+                readPosition += read;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
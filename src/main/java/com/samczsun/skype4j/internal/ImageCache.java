@@ -0,0 +1,178 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.internal;
+
+import com.samczsun.skype4j.internal.utils.SingleFlight;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the encoded bytes of avatars and chat pictures, keyed by URL. Held in memory up to a byte budget, least
+ * recently used first out, and optionally on disk as well so that evicted images need not be fetched again
+ */
+public class ImageCache {
+    public static final long DEFAULT_MAX_BYTES = 8 * 1024 * 1024;
+
+    private static final Logger LOGGER = Logger.getLogger(ImageCache.class.getName());
+
+    private final long maxBytes;
+    private final Path directory;
+    private final Map<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final SingleFlight<String, byte[]> loads = new SingleFlight<>();
+    private long size;
+
+    /**
+     * @param maxBytes  The maximum amount of bytes kept in memory
+     * @param directory The directory to keep images in as well, or null to only keep them in memory
+     */
+    public ImageCache(long maxBytes, Path directory) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Size must not be negative");
+        }
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+    }
+
+    /**
+     * Get the image at the given URL, loading it if it is not cached
+     *
+     * @param url    The URL of the image
+     * @param loader Fetches the image
+     * @return The encoded image, which must not be modified
+     */
+    public byte[] get(String url, Callable<byte[]> loader) {
+        byte[] data = getIfPresent(url);
+        if (data != null) {
+            return data;
+        }
+        return loads.execute(url, () -> {
+            byte[] loaded = getIfPresent(url);
+            if (loaded == null) {
+                loaded = readFromDisk(url);
+                if (loaded == null) {
+                    loaded = loader.call();
+                    writeToDisk(url, loaded);
+                }
+                put(url, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * @see #get(String, Callable)
+     * @return A read-only view of the encoded image
+     */
+    public ByteBuffer getBuffer(String url, Callable<byte[]> loader) {
+        return ByteBuffer.wrap(get(url, loader)).asReadOnlyBuffer();
+    }
+
+    public void invalidate(String url) {
+        synchronized (this) {
+            byte[] removed = entries.remove(url);
+            if (removed != null) {
+                size -= removed.length;
+            }
+        }
+        if (directory != null) {
+            try {
+                Files.deleteIfExists(fileOf(url));
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Could not delete cached image " + url, e);
+            }
+        }
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    private synchronized byte[] getIfPresent(String url) {
+        return entries.get(url);
+    }
+
+    private synchronized void put(String url, byte[] data) {
+        if (data.length > maxBytes) {
+            return;
+        }
+        byte[] previous = entries.put(url, data);
+        size += data.length - (previous == null ? 0 : previous.length);
+        while (size > maxBytes) {
+            Map.Entry<String, byte[]> eldest = entries.entrySet().iterator().next();
+            entries.remove(eldest.getKey());
+            size -= eldest.getValue().length;
+        }
+    }
+
+    private byte[] readFromDisk(String url) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = fileOf(url);
+        try {
+            return Files.exists(file) ? Files.readAllBytes(file) : null;
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not read cached image " + url, e);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String url, byte[] data) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "image", ".tmp");
+            Files.write(temp, data);
+            try {
+                Files.move(temp, fileOf(url), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, fileOf(url), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not write cached image " + url, e);
+        }
+    }
+
+    private Path fileOf(String url) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return directory.resolve(name.toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
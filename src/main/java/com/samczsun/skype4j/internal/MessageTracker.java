@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.samczsun.skype4j.internal;
+
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which messages have been delivered, so messages missed while polling was interrupted can be loaded again
+ * and messages which arrive twice are only delivered once
+ */
+public class MessageTracker {
+    public static final int DEFAULT_CAPACITY = 10000;
+
+    private final Map<String, Long> lastArrival = new ConcurrentHashMap<>();
+    private final Map<String, String> lastId = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> seen;
+    private volatile long lastPoll = -1;
+
+    /**
+     * @param capacity The amount of message ids to remember for duplicate suppression
+     */
+    public MessageTracker(int capacity) {
+        this.seen = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Record a NewMessage event
+     *
+     * @param eventObj The event, as received from the poll endpoint or loaded from the message history
+     * @return False if the message has been delivered before
+     */
+    public synchronized boolean markSeen(JsonObject eventObj) {
+        String conversation = EventQueue.partitionKey(eventObj);
+        JsonValue resource = eventObj.get("resource");
+        if (conversation == null || resource == null || !resource.isObject()) {
+            return true;
+        }
+        JsonObject message = resource.asObject();
+        String key = key(conversation, message);
+        if (key != null && seen.put(key, Boolean.TRUE) != null) {
+            return false;
+        }
+        long arrival = arrivalTime(message);
+        if (arrival >= getLastArrival(conversation)) {
+            lastArrival.put(conversation, arrival);
+            String id = string(message, "id");
+            if (id != null) {
+                lastId.put(conversation, id);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param conversation The conversation the message belongs to
+     * @param message      The message resource
+     * @return True if the message has been delivered before
+     */
+    public synchronized boolean isSeen(String conversation, JsonObject message) {
+        String key = key(conversation, message);
+        return key != null && seen.containsKey(key);
+    }
+
+    /**
+     * @param conversation The id of the conversation
+     * @return The arrival time of the newest message delivered in the conversation, or -1 if there was none
+     */
+    public long getLastArrival(String conversation) {
+        Long arrival = lastArrival.get(conversation);
+        return arrival == null ? -1 : arrival;
+    }
+
+    /**
+     * @param conversation The id of the conversation
+     * @return The id of the newest message delivered in the conversation, or null if there was none
+     */
+    public String getLastId(String conversation) {
+        return lastId.get(conversation);
+    }
+
+    /**
+     * @return The conversations which messages have been delivered in
+     */
+    public Set<String> getConversations() {
+        return new HashSet<>(lastArrival.keySet());
+    }
+
+    /**
+     * Record that a poll completed, so every event sent before now has been received
+     */
+    public void polled() {
+        this.lastPoll = System.currentTimeMillis();
+    }
+
+    /**
+     * @return The time the last poll completed, or -1 if nothing has been polled yet
+     */
+    public long getLastPoll() {
+        return this.lastPoll;
+    }
+
+    private static String key(String conversation, JsonObject message) {
+        String id = string(message, "id");
+        if (id == null) {
+            return null;
+        }
+        // The version changes when a message is edited, and the edit must not be mistaken for a duplicate
+        String version = string(message, "version");
+        return conversation + "/" + id + (version == null ? "" : "/" + version);
+    }
+
+    private static String string(JsonObject message, String key) {
+        JsonValue value = message.get(key);
+        return value == null || value.isNull() ? null : Utils.coerceToString(value);
+    }
+
+    /**
+     * @param message The message resource
+     * @return The time the server received the message, or the current time if it is unknown
+     */
+    public static long arrivalTime(JsonObject message) {
+        String time = Utils.getString(message, "originalarrivaltime");
+        if (time != null) {
+            try {
+                return Instant.parse(time).toEpochMilli();
+            } catch (DateTimeParseException ignored) {
+            }
+        }
+        return System.currentTimeMillis();
+    }
+}
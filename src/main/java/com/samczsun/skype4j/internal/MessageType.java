@@ -45,7 +45,9 @@ import com.samczsun.skype4j.formatting.lang.en.Moji;
 import com.samczsun.skype4j.internal.chat.ChatGroup;
 import com.samczsun.skype4j.internal.chat.ChatImpl;
 import com.samczsun.skype4j.internal.chat.messages.ChatMessageImpl;
+import com.samczsun.skype4j.internal.chat.objects.MediaObject;
 import com.samczsun.skype4j.internal.chat.objects.ReceivedFileImpl;
+import com.samczsun.skype4j.internal.chat.objects.ReceivedPictureImpl;
 import com.samczsun.skype4j.internal.participants.ParticipantImpl;
 import com.samczsun.skype4j.internal.participants.UserImpl;
 import com.samczsun.skype4j.participants.Participant;
@@ -56,7 +58,6 @@ import org.jsoup.nodes.Element;
 import org.jsoup.parser.Parser;
 import org.unbescape.html.HtmlEscape;
 
-import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.*;
 import java.util.logging.Level;
@@ -240,6 +241,27 @@ public enum MessageType {
             skype.getEventDispatcher().callEvent(event);
         }
     },
+    RICH_TEXT_MEDIA_GENERIC_FILE("RichText/Media_GenericFile") {
+        @Override
+        public void handle(SkypeImpl skype, JsonObject resource) throws ConnectionException, ChatNotFoundException, IOException, Exception {
+            String from = resource.get("from").asString();
+            String url = resource.get("conversationLink").asString();
+            ChatImpl c = getChat(url, skype);
+            Participant u = getUser(from, c);
+            String content = resource.get("content").asString();
+            Document doc = Parser.xmlParser().parseInput(content, "");
+            Element uriObject = doc.getElementsByTag("URIObject").first();
+            Validate.notNull(uriObject, "No URIObject");
+            String uri = uriObject.attr("uri");
+            String id = uri.substring(uri.lastIndexOf('/') + 1);
+            Element name = doc.getElementsByTag("OriginalName").first();
+            Element size = doc.getElementsByTag("FileSize").first();
+            ReceivedFile file = new ReceivedFileImpl(name == null ? id : name.attr("v"),
+                    size == null || size.attr("v").isEmpty() ? -1 : Long.parseLong(size.attr("v")),
+                    new MediaObject(skype, id, Utils.ImageType.FILE.getEndpoint()));
+            skype.getEventDispatcher().callEvent(new FileReceivedEvent(c, u, Collections.singletonList(file)));
+        }
+    },
     RICH_TEXT_SMS("RichText/Sms") {
         @Override
         public void handle(SkypeImpl skype, JsonObject resource) throws ConnectionException, ChatNotFoundException, IOException, Exception { //Implemented via fullExperience
@@ -297,30 +319,8 @@ public enum MessageType {
                     throw new IllegalArgumentException("Blob ID has changed?");
                 }
                 blob = matcher.group(1);
-                JsonObject obj = Endpoints.IMG_STATUS
-                        .open(skype, blob, "imgpsh_fullsize")
-                        .as(JsonObject.class)
-                        .cookies(skype.getCookies())
-                        .expect(200, "While getting URI object")
-                        .get();
-                Endpoints.EndpointConnection<JsonObject> econn = Endpoints
-                        .custom(obj.get("status_location").asString(), skype)
-                        .as(JsonObject.class)
-                        .expect(200, "While getting URI object")
-                        .header("Cookie", Endpoints.COOKIE.provide(skype));
-                while (true) {
-                    obj = econn.get();
-                    if (obj.get("content_state").asString().equalsIgnoreCase("ready")) {
-                        break;
-                    }
-                }
-                BufferedImage img = Endpoints
-                        .custom(obj.get("view_location").asString(), skype)
-                        .header("Cookie", Endpoints.COOKIE.provide(skype))
-                        .as(BufferedImage.class)
-                        .expect(200, "While getting URI object")
-                        .get();
-                skype.getEventDispatcher().callEvent(new PictureReceivedEvent(c, u, meta.attr("originalName"), img));
+                String name = meta.attr("originalName");
+                skype.getEventDispatcher().callEvent(new PictureReceivedEvent(c, u, name, new ReceivedPictureImpl(skype, blob, name)));
             } else {
                 throw new IllegalArgumentException("Unknown meta type " + meta.attr("type"));
             }
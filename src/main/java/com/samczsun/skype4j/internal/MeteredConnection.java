@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.internal;
+
+import com.samczsun.skype4j.transport.ForwardingConnection;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the bytes of the response body as they are read from the connection, before any Content-Encoding is undone.
+ * Neither the declared Content-Length of a chunked response nor that of a compressed one says how much was read
+ */
+class MeteredConnection extends ForwardingConnection {
+    private final AtomicLong read = new AtomicLong();
+
+    MeteredConnection(HttpURLConnection delegate) {
+        super(delegate);
+    }
+
+    HttpURLConnection getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * @return The amount of bytes read since the last call
+     */
+    long take() {
+        return read.getAndSet(0);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return count(delegate.getInputStream());
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        return count(delegate.getErrorStream());
+    }
+
+    private InputStream count(InputStream in) {
+        if (in == null) {
+            return null;
+        }
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b != -1) {
+                    read.incrementAndGet();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n > 0) {
+                    read.addAndGet(n);
+                }
+                return n;
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+                long skipped = super.skip(n);
+                read.addAndGet(Math.max(skipped, 0));
+                return skipped;
+            }
+        };
+    }
+}
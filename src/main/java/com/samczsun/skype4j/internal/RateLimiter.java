@@ -0,0 +1,148 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.internal;
+
+import com.samczsun.skype4j.transport.EndpointFamily;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter with one bucket per {@link EndpointFamily}. Families without a configured limit are
+ * unrestricted, but every family can be paused when the server asks us to back off.
+ */
+public class RateLimiter {
+    private static final long DEFAULT_PAUSE = TimeUnit.SECONDS.toMillis(1);
+    private static final long MAX_PAUSE = TimeUnit.MINUTES.toMillis(5);
+
+    private final Map<EndpointFamily, Bucket> buckets = new EnumMap<>(EndpointFamily.class);
+
+    public RateLimiter() {
+        for (EndpointFamily family : EndpointFamily.values()) {
+            buckets.put(family, new Bucket());
+        }
+    }
+
+    /**
+     * Limit a family to the given rate
+     *
+     * @param family           The family to limit
+     * @param permitsPerSecond The sustained amount of requests per second
+     * @param burst            The amount of requests which may be sent at once after a quiet period
+     */
+    public void limit(EndpointFamily family, double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        buckets.get(family).configure(permitsPerSecond, burst);
+    }
+
+    /**
+     * Block until a request to the given family may be sent
+     *
+     * @param family The family of the request
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public void acquire(EndpointFamily family) throws InterruptedException {
+        Bucket bucket = buckets.get(family);
+        long wait;
+        while ((wait = bucket.tryAcquire()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Stop all requests to the given family for a while
+     *
+     * @param family The family to pause
+     * @param millis How long to pause for
+     */
+    public void pause(EndpointFamily family, long millis) {
+        buckets.get(family).pauseFor(Math.min(Math.max(millis, 0), MAX_PAUSE));
+    }
+
+    /**
+     * Parse the value of a Retry-After header, which is either an amount of seconds or an HTTP date
+     *
+     * @param retryAfter The header value, may be null
+     * @return The amount of milliseconds to wait
+     */
+    public static long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.trim().isEmpty()) {
+            return DEFAULT_PAUSE;
+        }
+        retryAfter = retryAfter.trim();
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter));
+        } catch (NumberFormatException ignored) {
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(retryAfter, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis());
+        } catch (DateTimeParseException e) {
+            return DEFAULT_PAUSE;
+        }
+    }
+
+    private static class Bucket {
+        private double permitsPerNano;
+        private double capacity;
+        private double tokens;
+        private long lastRefill;
+        private long pausedUntil;
+
+        synchronized void configure(double permitsPerSecond, int burst) {
+            this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = burst;
+            this.tokens = burst;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized void pauseFor(long millis) {
+            long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+            if (until - pausedUntil > 0) {
+                pausedUntil = until;
+            }
+        }
+
+        /**
+         * @return 0 if a permit was taken, otherwise the amount of nanoseconds to wait before trying again
+         */
+        synchronized long tryAcquire() {
+            long now = System.nanoTime();
+            if (pausedUntil - now > 0) {
+                return pausedUntil - now;
+            }
+            if (capacity == 0) {
+                return 0;
+            }
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / permitsPerNano);
+        }
+    }
+}
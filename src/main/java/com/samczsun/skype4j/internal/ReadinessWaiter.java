@@ -0,0 +1,144 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.internal;
+
+import com.samczsun.skype4j.exceptions.ConnectionException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Waits for something on the server to become ready, such as an uploaded media object, by repeating a check with a
+ * growing delay. The delays of every pending object share one scheduler, and no thread is held between checks. The
+ * checks themselves usually block on a request, so they run on a separate executor where they can overlap
+ */
+public class ReadinessWaiter {
+    public static final long DEFAULT_TIMEOUT = TimeUnit.MINUTES.toMillis(2);
+
+    private static final long INITIAL_DELAY = 100;
+    private static final long MAX_DELAY = 2000;
+
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+
+    /**
+     * @param scheduler Only used to wait between checks
+     * @param executor  Runs the checks
+     */
+    public ReadinessWaiter(ScheduledExecutorService scheduler, Executor executor) {
+        this.scheduler = scheduler;
+        this.executor = executor;
+    }
+
+    /**
+     * Run the check until it returns a result. Cancelling the returned future stops checking
+     *
+     * @param check         Returns the result once ready, or null if not ready yet
+     * @param timeoutMillis How long to keep checking before failing with a {@link TimeoutException}
+     * @param <T>           The type of the result
+     * @return A future which completes with the first non-null result of the check
+     */
+    public <T> CompletableFuture<T> await(Callable<T> check, long timeoutMillis) {
+        Waiter<T> waiter = new Waiter<>(check, timeoutMillis);
+        waiter.submit();
+        return waiter.future;
+    }
+
+    /**
+     * Block until the future completes, converting failures into a {@link ConnectionException}
+     */
+    public static <T> T get(CompletableFuture<T> future, String cause) throws ConnectionException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw ExceptionHandler.generateException(cause, new InterruptedIOException("Interrupted while waiting"));
+        } catch (ExecutionException e) {
+            Throwable failure = e.getCause();
+            if (failure instanceof ConnectionException) {
+                throw (ConnectionException) failure;
+            }
+            if (failure instanceof IOException) {
+                throw ExceptionHandler.generateException(cause, (IOException) failure);
+            }
+            throw ExceptionHandler.generateException(cause, new IOException(failure.getMessage(), failure));
+        }
+    }
+
+    private class Waiter<T> implements Runnable {
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final Callable<T> check;
+        private final long timeoutMillis;
+        private final long deadline;
+        private long delay = INITIAL_DELAY;
+        private volatile ScheduledFuture<?> next;
+
+        private Waiter(Callable<T> check, long timeoutMillis) {
+            this.check = check;
+            this.timeoutMillis = timeoutMillis;
+            this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            this.future.whenComplete((result, failure) -> {
+                ScheduledFuture<?> next = this.next;
+                if (next != null) {
+                    next.cancel(false);
+                }
+            });
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                T result = check.call();
+                if (result != null) {
+                    future.complete(result);
+                    return;
+                }
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    future.completeExceptionally(new TimeoutException("Not ready after " + timeoutMillis + "ms"));
+                    return;
+                }
+                next = scheduler.schedule(this::submit, Math.min(delay, remaining), TimeUnit.MILLISECONDS);
+                delay = Math.min(delay * 2, MAX_DELAY);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+
+        private void submit() {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -17,26 +17,129 @@
 package com.samczsun.skype4j.internal;
 
 import com.samczsun.skype4j.events.Event;
+import com.samczsun.skype4j.events.EventHandler;
+import com.samczsun.skype4j.events.EventPriority;
 import com.samczsun.skype4j.events.Listener;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
 
+/**
+ * A single {@link com.samczsun.skype4j.events.EventHandler} method of a listener. Where possible the method is called
+ * through an invoker generated once at registration, which is as cheap as a direct call. Methods the generated
+ * invoker cannot reach, such as those of non-public classes, are called through reflection
+ */
 public class RegisteredListener {
     private final Listener listener;
     private final Method method;
+    private final BiConsumer<Object, Object> invoker;
+    private final EventPriority priority;
+    private final String executor;
+    private final boolean async;
+    private final boolean ignoreCancelled;
 
     public RegisteredListener(Listener l, Method m) {
+        this(l, m, true);
+    }
+
+    /**
+     * @param l       The listener
+     * @param m       The event handler method of the listener
+     * @param compile Whether to generate an invoker, or always use reflection
+     */
+    public RegisteredListener(Listener l, Method m, boolean compile) {
         this.listener = l;
         this.method = m;
         this.method.setAccessible(true);
+        this.invoker = compile ? compile(m) : null;
+        EventHandler annotation = m.getAnnotation(EventHandler.class);
+        this.priority = annotation == null ? EventPriority.NORMAL : annotation.priority();
+        this.executor = annotation == null ? "" : annotation.executor();
+        this.async = annotation != null && (annotation.async() || !annotation.executor().isEmpty());
+        this.ignoreCancelled = annotation != null && annotation.ignoreCancelled();
     }
 
     public void handleEvent(Event e) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-        this.method.invoke(listener, e);
+        if (invoker != null) {
+            try {
+                invoker.accept(listener, e);
+            } catch (Throwable t) {
+                // Wrapped like a reflective call, so error handlers see the same exception either way
+                throw new InvocationTargetException(t);
+            }
+        } else {
+            this.method.invoke(listener, e);
+        }
     }
 
     public Method getMethod() {
         return this.method;
     }
+
+    public EventPriority getPriority() {
+        return this.priority;
+    }
+
+    /**
+     * @return Whether the method is called on an executor rather than on the thread handling events
+     */
+    public boolean isAsync() {
+        return this.async;
+    }
+
+    /**
+     * @return The name of the executor to call the method on, or an empty string for the default pool
+     */
+    public String getExecutor() {
+        return this.executor;
+    }
+
+    public boolean isIgnoringCancelled() {
+        return this.ignoreCancelled;
+    }
+
+    /**
+     * @return Whether the method is called through a generated invoker rather than through reflection
+     */
+    public boolean isCompiled() {
+        return this.invoker != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> compile(Method method) {
+        Class<?> owner = method.getDeclaringClass();
+        Class<?> eventType = method.getParameterTypes()[0];
+        // The invoker is defined next to this class, so everything it touches must be visible from here
+        if (Modifier.isStatic(method.getModifiers()) || !isReachable(owner) || !isReachable(eventType)) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class), handle,
+                    MethodType.methodType(void.class, owner, eventType));
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    private static boolean isReachable(Class<?> type) {
+        if (!Modifier.isPublic(type.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(type.getName(), false, RegisteredListener.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.internal;
+
+import com.samczsun.skype4j.transport.ProgressListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The body of a request. Bodies backed by a file or a stream are written straight to the connection in fixed length
+ * or chunked streaming mode, so sending them takes the same amount of memory regardless of their size
+ */
+public abstract class RequestBody {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public static RequestBody of(byte[] data) {
+        return new RequestBody() {
+            @Override
+            public long length() {
+                return data.length;
+            }
+
+            @Override
+            public boolean isStreamed() {
+                return false;
+            }
+
+            @Override
+            protected void write(OutputStream out) throws IOException {
+                out.write(data);
+            }
+        };
+    }
+
+    public static RequestBody of(Path path) throws IOException {
+        long length = path.toFile().length();
+        return new RequestBody() {
+            @Override
+            public long length() {
+                return length;
+            }
+
+            @Override
+            protected void write(OutputStream out) throws IOException {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                    while (channel.read(buffer) != -1) {
+                        out.write(buffer.array(), 0, buffer.position());
+                        buffer.clear();
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * @param in     The stream to send, which is closed once sent
+     * @param length The amount of bytes in the stream, or -1 to send it chunked
+     * @return A body which can only be sent once
+     */
+    public static RequestBody of(InputStream in, long length) {
+        return new RequestBody() {
+            @Override
+            public long length() {
+                return length;
+            }
+
+            @Override
+            public boolean isRepeatable() {
+                return false;
+            }
+
+            @Override
+            protected void write(OutputStream out) throws IOException {
+                try (InputStream stream = in) {
+                    byte[] buffer = new byte[BUFFER_SIZE];
+                    int read;
+                    while ((read = stream.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                    }
+                }
+            }
+        };
+    }
+
+    private ProgressListener listener;
+
+    /**
+     * @return The amount of bytes in this body, or -1 if unknown
+     */
+    public abstract long length();
+
+    /**
+     * @return Whether this body can be sent again when a request is retried
+     */
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    /**
+     * @return Whether this body should be written in streaming mode rather than buffered by the connection
+     */
+    public boolean isStreamed() {
+        return true;
+    }
+
+    public RequestBody withProgress(ProgressListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        if (listener == null) {
+            write(out);
+            return;
+        }
+        ProgressOutputStream progress = new ProgressOutputStream(out, listener, length());
+        write(progress);
+        progress.complete();
+    }
+
+    protected abstract void write(OutputStream out) throws IOException;
+
+    private static class ProgressOutputStream extends OutputStream {
+        private final OutputStream out;
+        private final ProgressListener listener;
+        private final long total;
+        private long transferred;
+        private long reported;
+
+        private ProgressOutputStream(OutputStream out, ProgressListener listener, long total) {
+            this.out = out;
+            this.listener = listener;
+            this.total = total;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            advance(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            advance(len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        private void advance(int amount) {
+            transferred += amount;
+            if (transferred - reported >= BUFFER_SIZE) {
+                reported = transferred;
+                listener.onProgress(transferred, total);
+            }
+        }
+
+        private void complete() {
+            listener.onProgress(transferred, total);
+        }
+    }
+}
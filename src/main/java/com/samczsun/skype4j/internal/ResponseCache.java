@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the validators and decoded bodies of cacheable responses so that they can be revalidated with a
+ * conditional request. Bounded by entry count, least recently used entries are evicted first
+ */
+public class ResponseCache {
+    private final Map<String, Entry> entries;
+
+    public ResponseCache(int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("Size must not be negative");
+        }
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(String key, String etag, String lastModified, Object value) {
+        if (etag == null && lastModified == null) {
+            entries.remove(key);
+        } else {
+            entries.put(key, new Entry(etag, lastModified, value));
+        }
+    }
+
+    public synchronized void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public static String key(String url, Class<?> type) {
+        return type.getName() + ' ' + url;
+    }
+
+    public static class Entry {
+        private final String etag;
+        private final String lastModified;
+        private final Object value;
+
+        private Entry(String etag, String lastModified, Object value) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.value = value;
+        }
+
+        public String getETag() {
+            return this.etag;
+        }
+
+        public String getLastModified() {
+            return this.lastModified;
+        }
+
+        public Object getValue() {
+            return this.value;
+        }
+    }
+}
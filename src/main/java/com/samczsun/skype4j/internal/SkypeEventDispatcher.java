@@ -17,61 +17,153 @@
 package com.samczsun.skype4j.internal;
 
 import com.samczsun.skype4j.Skype;
+import com.samczsun.skype4j.events.Cancellable;
 import com.samczsun.skype4j.events.Event;
 import com.samczsun.skype4j.events.EventDispatcher;
 import com.samczsun.skype4j.events.EventHandler;
 import com.samczsun.skype4j.events.Listener;
 import com.samczsun.skype4j.exceptions.handler.ErrorSource;
+import org.jsoup.helper.Validate;
 
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 public class SkypeEventDispatcher implements EventDispatcher {
+    private static final RegisteredListener[] NO_LISTENERS = new RegisteredListener[0];
+    private static final int ASYNC_THREADS = 4;
+    private static final int ASYNC_QUEUE_CAPACITY = 256;
+
     private Skype instance;
 
     public SkypeEventDispatcher(Skype instance) {
         this.instance = instance;
     }
 
-    private final Map<Class<?>, List<RegisteredListener>> listeners = Collections.synchronizedMap(new HashMap<>());
+    // Guarded by itself. Only read when registering or baking
+    private final Map<Class<?>, List<RegisteredListener>> listeners = new HashMap<>();
+    // Every listener which receives events of a concrete class, including those registered for its superclasses
+    private final Map<Class<?>, RegisteredListener[]> baked = new ConcurrentHashMap<>();
+    private final Map<String, Executor> executors = new ConcurrentHashMap<>();
+    private volatile ExecutorService asyncExecutor;
 
     public void registerListener(Listener l) {
         Class<?> c = l.getClass();
+        List<RegisteredListener> methods = new ArrayList<>();
         for (Method m : c.getMethods()) {
             if (m.getAnnotation(EventHandler.class) != null && m.getParameterTypes().length == 1 && Event.class.isAssignableFrom(m.getParameterTypes()[0])) {
                 RegisteredListener reglistener = new RegisteredListener(l, m);
-                Class<?> eventType = m.getParameterTypes()[0];
-                List<RegisteredListener> methods = listeners.get(eventType);
-                if (methods == null) {
-                    methods = new ArrayList<>();
-                    listeners.put(eventType, methods);
+                if (!reglistener.getExecutor().isEmpty() && !executors.containsKey(reglistener.getExecutor())) {
+                    throw new IllegalArgumentException("Unknown executor " + reglistener.getExecutor() + " for " + m);
                 }
                 methods.add(reglistener);
             }
         }
+        synchronized (listeners) {
+            for (RegisteredListener reglistener : methods) {
+                Class<?> eventType = reglistener.getMethod().getParameterTypes()[0];
+                listeners.computeIfAbsent(eventType, type -> new ArrayList<>()).add(reglistener);
+            }
+            baked.clear();
+        }
     }
 
-    public void callEvent(Event e) { //todo bake
-        List<RegisteredListener> methods = new ArrayList<>();
-        Class<?> eventType = e.getClass();
-        while (true) {
-            List<RegisteredListener> m = listeners.get(eventType);
-            if (m != null) {
-                methods.addAll(m);
+    public void registerExecutor(String name, Executor executor) {
+        Validate.notEmpty(name, "Name must not be empty");
+        Validate.notNull(executor, "Executor must not be null");
+        executors.put(name, executor);
+    }
+
+    public void callEvent(Event e) {
+        RegisteredListener[] methods = baked.get(e.getClass());
+        if (methods == null) {
+            methods = bake(e.getClass());
+        }
+        for (RegisteredListener method : methods) {
+            if (method.isIgnoringCancelled() && e instanceof Cancellable && ((Cancellable) e).isCancelled()) {
+                continue;
             }
-            if (eventType == Event.class) {
-                break;
+            if (method.isAsync()) {
+                try {
+                    getExecutor(method).execute(() -> handle(method, e));
+                } catch (RejectedExecutionException t) {
+                    instance.handleError(ErrorSource.DISPATCHING_EVENT, t, false);
+                }
+            } else {
+                handle(method, e);
             }
-            eventType = eventType.getSuperclass();
         }
-        for (RegisteredListener method : methods) {
-            try {
-                method.handleEvent(e);
-            } catch (Throwable t) {
-                instance.getLogger().log(Level.SEVERE, "Error while handling event", t);
-                instance.handleError(ErrorSource.DISPATCHING_EVENT, t, false);
+    }
+
+    /**
+     * Stop the default pool of asynchronous listeners once the listeners already queued have completed. It is
+     * started again when the next asynchronous listener is called
+     */
+    public synchronized void shutdown() {
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdown();
+            asyncExecutor = null;
+        }
+    }
+
+    private void handle(RegisteredListener method, Event e) {
+        try {
+            method.handleEvent(e);
+        } catch (Throwable t) {
+            instance.getLogger().log(Level.SEVERE, "Error while handling event", t);
+            instance.handleError(ErrorSource.DISPATCHING_EVENT, t, false);
+        }
+    }
+
+    private Executor getExecutor(RegisteredListener method) {
+        if (!method.getExecutor().isEmpty()) {
+            return executors.get(method.getExecutor());
+        }
+        ExecutorService executor = asyncExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                if (asyncExecutor == null) {
+                    // Bounded, and run on the calling event thread once full, so slow listeners push back on the event
+                    // queue instead of piling up events without limit
+                    asyncExecutor = new ThreadPoolExecutor(ASYNC_THREADS, ASYNC_THREADS, 0, TimeUnit.MILLISECONDS,
+                            new ArrayBlockingQueue<>(ASYNC_QUEUE_CAPACITY), instance instanceof SkypeImpl ?
+                            new SkypeThreadFactory((SkypeImpl) instance, "Listener") : Executors.defaultThreadFactory(),
+                            new ThreadPoolExecutor.CallerRunsPolicy());
+                }
+                executor = asyncExecutor;
+            }
+        }
+        return executor;
+    }
+
+    private RegisteredListener[] bake(Class<?> concreteType) {
+        // Baked under the registration lock, so a table can never miss a listener registered before it was stored
+        synchronized (listeners) {
+            List<RegisteredListener> methods = new ArrayList<>();
+            Class<?> eventType = concreteType;
+            while (true) {
+                List<RegisteredListener> m = listeners.get(eventType);
+                if (m != null) {
+                    methods.addAll(m);
+                }
+                if (eventType == Event.class) {
+                    break;
+                }
+                eventType = eventType.getSuperclass();
             }
+            // Stable, so listeners of the same priority keep the order they were registered in
+            methods.sort(Comparator.comparing(RegisteredListener::getPriority).reversed());
+            RegisteredListener[] table = methods.isEmpty() ? NO_LISTENERS : methods.toArray(new RegisteredListener[methods.size()]);
+            baked.put(concreteType, table);
+            return table;
         }
     }
 }
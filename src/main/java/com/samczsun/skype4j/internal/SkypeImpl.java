@@ -19,6 +19,7 @@ package com.samczsun.skype4j.internal;
 import com.eclipsesource.json.JsonArray;
 import com.eclipsesource.json.JsonObject;
 import com.eclipsesource.json.JsonValue;
+import com.samczsun.skype4j.OverflowPolicy;
 import com.samczsun.skype4j.Skype;
 import com.samczsun.skype4j.Visibility;
 import com.samczsun.skype4j.chat.Chat;
@@ -35,8 +36,16 @@ import com.samczsun.skype4j.internal.threads.AuthenticationChecker;
 import com.samczsun.skype4j.internal.threads.PollThread;
 import com.samczsun.skype4j.internal.threads.ServerPingThread;
 import com.samczsun.skype4j.internal.utils.Encoder;
+import com.samczsun.skype4j.internal.utils.JsonStreamReader;
+import com.samczsun.skype4j.internal.utils.SingleFlight;
+import com.samczsun.skype4j.internal.utils.StripedExecutor;
+import com.samczsun.skype4j.metrics.InMemoryMetricsRegistry;
+import com.samczsun.skype4j.metrics.MetricsRegistry;
 import com.samczsun.skype4j.participants.info.BotInfo;
 import com.samczsun.skype4j.participants.info.Contact;
+import com.samczsun.skype4j.transport.KeepAliveTransport;
+import com.samczsun.skype4j.transport.RetryPolicy;
+import com.samczsun.skype4j.transport.Transport;
 import org.jsoup.helper.Validate;
 import java.io.*;
 import java.net.HttpURLConnection;
@@ -50,9 +59,20 @@ import java.security.NoSuchAlgorithmException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 import java.util.logging.*;
 import java.util.logging.Formatter;
 import java.util.regex.Matcher;
@@ -63,6 +83,12 @@ public abstract class SkypeImpl implements Skype {
     public static final String LINE_SEPARATOR = System.getProperty("line.separator");
     public static final Pattern PAGE_SIZE_PATTERN = Pattern.compile("pageSize=([0-9]+)");
     public static final String VERSION = "0.2.0-SNAPSHOT";
+    private static final int EVENT_STRIPES = 128;
+    private static final int BACKFILL_PAGE_SIZE = 100;
+    // Only a safety net against a server which keeps handing out pages, running into it is reported
+    private static final int BACKFILL_MAX_PAGES = 100;
+    private static final long BACKFILL_OVERLAP = TimeUnit.MINUTES.toMillis(1);
+    private static final int MEDIA_THREADS = 4;
 
     protected final AtomicBoolean loggedIn = new AtomicBoolean(false);
     protected final AtomicBoolean shutdownRequested = new AtomicBoolean(false);
@@ -76,7 +102,8 @@ public abstract class SkypeImpl implements Skype {
     private String status;
     private String displayName;
     private String userPhones;
-    protected ExecutorService scheduler;
+    protected StripedExecutor scheduler;
+    protected EventQueue eventQueue;
     protected ExecutorService shutdownThread;
     protected EventDispatcher eventDispatcher = new SkypeEventDispatcher(this);
     protected Map<String, String> cookies = new HashMap<>();
@@ -88,20 +115,41 @@ public abstract class SkypeImpl implements Skype {
     protected String conversationBackwardLink;
     protected String conversationSyncState;
     protected Logger logger = Logger.getLogger("log_" + this.getUsername());
-    private String skypeToken;
-    private long skypeTokenExpiryTime;
-    private String registrationToken;
-    private long registrationTokenExpiryTime;
+    // Swapped in by token refreshes while other threads keep sending requests
+    private volatile String skypeToken;
+    private volatile long skypeTokenExpiryTime;
+    private volatile String registrationToken;
+    private volatile long registrationTokenExpiryTime;
     private String cloud = "";
-    private String endpointId;
+    private volatile String endpointId;
     private JsonObject trouterData;
     private int socketId = 1;
     private boolean appendLogFile = false;
+    private Transport transport = new KeepAliveTransport();
+    private final RateLimiter rateLimiter = new RateLimiter();
+    private RetryPolicy retryPolicy = RetryPolicy.defaults();
+    private ResponseCache responseCache = new ResponseCache(256);
+    private ImageCache imageCache = new ImageCache(ImageCache.DEFAULT_MAX_BYTES, null);
+    private MetricsRegistry metricsRegistry = new InMemoryMetricsRegistry();
+    private ExecutorService asyncExecutor;
+    private boolean customAsyncExecutor;
+    private ScheduledExecutorService mediaScheduler;
+    private ExecutorService mediaExecutor;
+    private int eventThreads = 1;
+    private int eventQueueCapacity = EventQueue.DEFAULT_CAPACITY;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private ReadinessWaiter readinessWaiter;
+    private final MessageTracker messageTracker = new MessageTracker(MessageTracker.DEFAULT_CAPACITY);
+    private final AtomicLong clientMessageIds = new AtomicLong(System.currentTimeMillis());
 
     // Data
     protected final Map<String, ChatImpl> allChats = Collections.synchronizedMap(new HashMap<>());
     protected final Map<String, Contact> allContacts = Collections.synchronizedMap(new HashMap<>());
     protected final Map<String, BotInfoImpl> allBots = Collections.synchronizedMap(new HashMap<>());
+    private final SingleFlight<String, ChatImpl> chatFlights = new SingleFlight<>();
+    private final SingleFlight<String, Contact> contactFlights = new SingleFlight<>();
+    private final SingleFlight<String, BotInfoImpl> botFlights = new SingleFlight<>();
+    private final SingleFlight<String, Object> requestFlights = new SingleFlight<>();
     protected final Set<Contact.ContactRequest> allContactRequests = Collections.synchronizedSet(new HashSet<>());
 
     public SkypeImpl(String username, Set<String> resources, Logger logger, List<ErrorHandler> errorHandlers) throws ConnectionException {
@@ -171,23 +219,29 @@ public abstract class SkypeImpl implements Skype {
                 } catch (InterruptedException ignore) { }
             }
         }
+        closeEventQueue();
         shutdownThread = Executors.newSingleThreadExecutor(new SkypeThreadFactory(this, "Shutdown"));
-        scheduler = Executors.newFixedThreadPool(1, new SkypeThreadFactory(this, "Poller"));
+        scheduler = new StripedExecutor(Executors.newFixedThreadPool(eventThreads, new SkypeThreadFactory(this, "Poller")),
+                EVENT_STRIPES);
+        EventQueue queue = eventQueue = new EventQueue(scheduler, eventQueueCapacity, overflowPolicy, this::handleEvent,
+                t -> handleError(ErrorSource.POLLING_SKYPE, t, false));
+        metricsRegistry.registerGauge("events.queued", queue::size);
+        metricsRegistry.registerGauge("events.spilled", queue::spilled);
+        metricsRegistry.registerGauge("events.dropped", queue::dropped);
         (serverPingThread = new ServerPingThread(this)).start();
         (reauthThread = new AuthenticationChecker(this)).start();
     }
 
     public List<Chat> loadMoreChats(int amount) throws ConnectionException {
         try {
-            JsonObject data;
+            InputStream input;
             if (this.conversationBackwardLink == null) {
                 if (this.conversationSyncState == null) {
-                    InputStream input = Endpoints.LOAD_CHATS
+                    input = Endpoints.LOAD_CHATS
                             .open(this, System.currentTimeMillis(), amount)
                             .as(InputStream.class)
                             .expect(200, "While loading chats")
                             .get();
-                    data = Utils.parseJsonObject(input);
                 } else {
                     return Collections.emptyList();
                 }
@@ -195,29 +249,50 @@ public abstract class SkypeImpl implements Skype {
                 Matcher matcher = PAGE_SIZE_PATTERN.matcher(this.conversationBackwardLink);
                 matcher.find();
                 String url = matcher.replaceAll("pageSize=" + amount);
-                data = Endpoints
+                input = Endpoints
                         .custom(url, this)
-                        .as(JsonObject.class)
+                        .as(InputStream.class)
                         .expect(200, "While loading chats")
                         .header("RegistrationToken", this.getRegistrationToken())
                         .get();
             }
 
+            // Only the ids are kept while streaming, chats are loaded once the response has been consumed
+            List<String> ids = new ArrayList<>();
+            JsonObject metadata = null;
+            try (JsonStreamReader reader = new JsonStreamReader(input)) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (name.equals("conversations")) {
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            ids.add(reader.nextValue().asObject().get("id").asString());
+                        }
+                        reader.endArray();
+                    } else if (name.equals("_metadata")) {
+                        metadata = reader.nextValue().asObject();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            }
+
             List<Chat> chats = new ArrayList<>();
 
-            for (JsonValue value : data.get("conversations").asArray()) {
+            for (String id : ids) {
                 try {
-                    chats.add(this.getOrLoadChat(value.asObject().get("id").asString()));
+                    chats.add(this.getOrLoadChat(id));
                 } catch (ChatNotFoundException e) {
                     throw new RuntimeException(e);
                 } catch (IllegalArgumentException e) {
-                    handleError(null, new RuntimeException(value.toString(), e), false);
+                    handleError(null, new RuntimeException(id, e), false);
                 } catch (Exception ex) {
                     Logger.getLogger(SkypeImpl.class.getName()).log(Level.SEVERE, null, ex);
                 }
             }
 
-            JsonObject metadata = data.get("_metadata").asObject();
             if (metadata.get("backwardLink") != null) {
                 this.conversationBackwardLink = metadata.get("backwardLink").asString();
             } else {
@@ -272,6 +347,22 @@ public abstract class SkypeImpl implements Skype {
                     } catch (InterruptedException ex) { return; }
                 }
                 doShutdown();
+                closeEventQueue();
+                if (eventDispatcher instanceof SkypeEventDispatcher) {
+                    ((SkypeEventDispatcher) eventDispatcher).shutdown();
+                }
+                synchronized (this) {
+                    if (asyncExecutor != null && !customAsyncExecutor) {
+                        asyncExecutor.shutdown();
+                    }
+                    if (mediaScheduler != null) {
+                        mediaScheduler.shutdownNow();
+                        mediaExecutor.shutdownNow();
+                        mediaScheduler = null;
+                        mediaExecutor = null;
+                        readinessWaiter = null;
+                    }
+                }
             });
         }
     }
@@ -326,11 +417,28 @@ public abstract class SkypeImpl implements Skype {
 
     @Override
     public ChatImpl getOrLoadChat(String name) throws ConnectionException, ChatNotFoundException, Exception {
-        if (allChats.containsKey(name)) {
-            return allChats.get(name);
-        } else {
-            return loadChat(name);
+        ChatImpl chat = allChats.get(name);
+        if (chat != null) {
+            return chat;
         }
+        return chatFlights.execute(name, () -> {
+            ChatImpl loaded = allChats.get(name);
+            return loaded != null ? loaded : loadChat(name);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Chat> getOrLoadChatAsync(String name) {
+        ChatImpl chat = allChats.get(name);
+        if (chat != null) {
+            return CompletableFuture.completedFuture(chat);
+        }
+        return supplyAsync(() -> getOrLoadChat(name));
+    }
+
+    @Override
+    public CompletableFuture<List<Chat>> loadMoreChatsAsync(int amount) {
+        return supplyAsync(() -> loadMoreChats(amount));
     }
 
     @Override
@@ -365,22 +473,43 @@ public abstract class SkypeImpl implements Skype {
     @Override
     public Contact getOrLoadContact(String username) throws ConnectionException {
         Contact contact = allContacts.get(username);
-        if (contact == null) {
-            contact = loadContact(username);
-            allContacts.put(username, contact);
+        if (contact != null) {
+            return contact;
+        }
+        return contactFlights.execute(username, () -> {
+            Contact loaded = allContacts.get(username);
+            return loaded != null ? loaded : loadContact(username);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Contact> getOrLoadContactAsync(String username) {
+        Contact contact = allContacts.get(username);
+        if (contact != null) {
+            return CompletableFuture.completedFuture(contact);
         }
-        return contact;
+        return supplyAsync(() -> getOrLoadContact(username));
     }
 
     @Override
     public BotInfo getOrLoadBotInfo(String botId) throws ConnectionException {
         BotInfoImpl botInfo = this.allBots.get(botId);
-        if (botInfo == null) {
-            botInfo = new BotInfoImpl(this, botId);
-            botInfo.load();
-            this.allBots.put(botInfo.getId(), botInfo);
+        if (botInfo != null) {
+            return botInfo;
         }
-        return botInfo;
+        return botFlights.execute(botId, () -> {
+            BotInfoImpl loaded = this.allBots.get(botId);
+            if (loaded == null) {
+                loaded = new BotInfoImpl(this, botId);
+                loaded.load();
+                this.allBots.put(loaded.getId(), loaded);
+            }
+            return loaded;
+        });
+    }
+
+    public SingleFlight<String, Object> getRequestFlights() {
+        return this.requestFlights;
     }
 
     protected void registerEndpoint() throws ConnectionException {
@@ -398,6 +527,18 @@ public abstract class SkypeImpl implements Skype {
                 .post(new JsonObject().add("endpointFeatures", "Agent"));
     }
 
+    /**
+     * Refresh the registration token of the current endpoint using the current skype token
+     */
+    protected void refreshRegistrationToken() throws ConnectionException {
+        Endpoints
+                .custom(Endpoints.ENDPOINTS_URL.url() + "/" + Encoder.encode(endpointId), this)
+                .expect(200, "While refreshing registration token")
+                .header("Authentication", "skypetoken=" + skypeToken)
+                .header("LockAndKey", Utils.generateChallengeHeader())
+                .put(new JsonObject().add("endpointFeatures", "Agent"));
+    }
+
     public abstract void getContactRequests(boolean fromWebsocket) throws Exception;
 
     public abstract void updateContactList() throws Exception;
@@ -484,7 +625,7 @@ public abstract class SkypeImpl implements Skype {
         }
 
         this.wss = new SkypeWebSocket(this,
-                new URI(String.format("%s/socket.io/" + socketId + "/websocket/%s?%s", "wss://" + socketio.replaceAll("https?://", "").replace(":443", ""),
+                new URI(String.format("%s/socket.io/" + socketId + "/websocket/%s?%s", (socketio.startsWith("http://") ? "ws://" : "wss://") + socketio.replaceAll("https?://", "").replace(":443", ""),
                         websocketData.split(":")[0], args.toString())));
         this.wss.connectBlocking();
         socketId++;
@@ -538,8 +679,19 @@ public abstract class SkypeImpl implements Skype {
         }
     }
 
+    /**
+     * Fetch new tokens and swap them into the running session. Clients which cannot refresh their tokens in place
+     * log in again instead
+     */
+    public void refreshTokens() throws Exception {
+        reauthenticate();
+    }
+
+    /**
+     * Tear the session down and log in again. Events sent while the session is down may be lost, so
+     * {@link #refreshTokens()} is preferred
+     */
     public void reauthenticate() throws ConnectionException, InvalidCredentialsException, NotParticipatingException, WrongPasswordException, AccountNotFoundException, SuspiciousLoginException, IOException, Exception {
-        //todo: keep subscribed until reauth is finished so events aren't lost
         doShutdown();
         login();
         if (subscribed.get()) {
@@ -553,8 +705,10 @@ public abstract class SkypeImpl implements Skype {
 
     public void setRegistrationToken(String registrationToken) {
         String[] splits = registrationToken.split(";");
+        // Parse before assigning so a malformed header does not leave a token without its expiry
+        long expiryTime = Long.parseLong(splits[1].substring("expires=".length() + 1)) * 1000;
         this.registrationToken = splits[0];
-        this.registrationTokenExpiryTime = Long.parseLong(splits[1].substring("expires=".length() + 1)) * 1000;
+        this.registrationTokenExpiryTime = expiryTime;
         if (splits.length > 2) {
             this.endpointId = splits[2].split("=")[1];
         }
@@ -565,11 +719,12 @@ public abstract class SkypeImpl implements Skype {
     }
 
     public void setSkypeToken(String skypeToken) {
-        this.skypeToken = skypeToken;
         String[] data = skypeToken.split("\\.");
         JsonObject object = JsonObject.readFrom(
                 new String(Base64.getDecoder().decode(data[1]), StandardCharsets.UTF_8));
-        this.skypeTokenExpiryTime = object.get("exp").asLong() * 1000;
+        long expiryTime = object.get("exp").asLong() * 1000;
+        this.skypeToken = skypeToken;
+        this.skypeTokenExpiryTime = expiryTime;
     }
 
     public String getCloud() {
@@ -596,10 +751,277 @@ public abstract class SkypeImpl implements Skype {
         return loggedIn.get();
     }
 
-    public ExecutorService getScheduler() {
+    public Transport getTransport() {
+        return this.transport;
+    }
+
+    public void setTransport(Transport transport) {
+        Validate.notNull(transport, "Transport must not be null");
+        this.transport = transport;
+    }
+
+    public RateLimiter getRateLimiter() {
+        return this.rateLimiter;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return this.retryPolicy;
+    }
+
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        Validate.notNull(retryPolicy, "Retry policy must not be null");
+        this.retryPolicy = retryPolicy;
+    }
+
+    public ResponseCache getResponseCache() {
+        return this.responseCache;
+    }
+
+    public void setResponseCache(ResponseCache responseCache) {
+        Validate.notNull(responseCache, "Response cache must not be null");
+        this.responseCache = responseCache;
+    }
+
+    public ImageCache getImageCache() {
+        return this.imageCache;
+    }
+
+    public void setImageCache(ImageCache imageCache) {
+        Validate.notNull(imageCache, "Image cache must not be null");
+        this.imageCache = imageCache;
+    }
+
+    @Override
+    public MetricsRegistry getMetricsRegistry() {
+        return this.metricsRegistry;
+    }
+
+    public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+        Validate.notNull(metricsRegistry, "Metrics registry must not be null");
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    public synchronized ExecutorService getAsyncExecutor() {
+        if (this.asyncExecutor == null) {
+            this.asyncExecutor = Executors.newFixedThreadPool(4, new SkypeThreadFactory(this, "Async"));
+        }
+        return this.asyncExecutor;
+    }
+
+    public synchronized void setAsyncExecutor(ExecutorService asyncExecutor) {
+        Validate.notNull(asyncExecutor, "Executor must not be null");
+        this.asyncExecutor = asyncExecutor;
+        this.customAsyncExecutor = true;
+    }
+
+    public synchronized ReadinessWaiter getReadinessWaiter() {
+        if (this.readinessWaiter == null) {
+            this.mediaScheduler = Executors.newSingleThreadScheduledExecutor(new SkypeThreadFactory(this, "Media"));
+            // Not the async executor, whose threads may be blocked waiting for these very checks
+            ThreadPoolExecutor mediaExecutor = new ThreadPoolExecutor(MEDIA_THREADS, MEDIA_THREADS, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), new SkypeThreadFactory(this, "Media-Check"));
+            mediaExecutor.allowCoreThreadTimeOut(true);
+            this.mediaExecutor = mediaExecutor;
+            this.readinessWaiter = new ReadinessWaiter(this.mediaScheduler, this.mediaExecutor);
+        }
+        return this.readinessWaiter;
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            getAsyncExecutor().execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    public StripedExecutor getScheduler() {
         return this.scheduler;
     }
 
+    public MessageTracker getMessageTracker() {
+        return this.messageTracker;
+    }
+
+    /**
+     * @return A client message id which no other message sent by this client uses. The service drops messages whose
+     * client message id it has already seen, so ids based on the time alone lose messages sent in the same millisecond
+     */
+    public String nextClientMessageId() {
+        return String.valueOf(clientMessageIds.incrementAndGet());
+    }
+
+    /**
+     * Load the messages which may have been missed while polling was interrupted, and queue them as events. Messages
+     * which were already delivered are skipped. Only conversations with activity since the last poll are checked,
+     * including ones the client has never seen. They are loaded in parallel on the async executor
+     *
+     * @throws InterruptedException If the calling thread was interrupted while waiting for the messages or for room in
+     *                              the event queue
+     */
+    public void backfill() throws InterruptedException {
+        long lastPoll = messageTracker.getLastPoll();
+        if (lastPoll < 0) {
+            return;
+        }
+        List<String> conversations;
+        try {
+            // Arrival times come from the server clock, so look back a little further than needed
+            conversations = loadConversationsSince(lastPoll - BACKFILL_OVERLAP);
+        } catch (ConnectionException e) {
+            handleError(ErrorSource.POLLING_SKYPE, e, false);
+            return;
+        }
+        Map<String, CompletableFuture<List<JsonObject>>> loads = new LinkedHashMap<>();
+        for (String conversation : conversations) {
+            long lastArrival = messageTracker.getLastArrival(conversation);
+            long since = (lastArrival < 0 ? lastPoll : lastArrival) - BACKFILL_OVERLAP;
+            loads.put(conversation, supplyAsync(() -> loadMessagesSince(conversation, since)));
+        }
+        // Queued one conversation at a time, so each conversation is handled in order ahead of the events of the poll
+        for (Map.Entry<String, CompletableFuture<List<JsonObject>>> load : loads.entrySet()) {
+            List<JsonObject> missed;
+            try {
+                missed = load.getValue().get();
+            } catch (ExecutionException e) {
+                handleError(ErrorSource.POLLING_SKYPE, e.getCause(), false);
+                continue;
+            }
+            try {
+                for (JsonObject message : missed) {
+                    if (!messageTracker.isSeen(load.getKey(), message)) {
+                        eventQueue.offer(new JsonObject()
+                                .add("resourceType", "NewMessage")
+                                .add("resource", message));
+                    }
+                }
+            } catch (IOException e) {
+                handleError(ErrorSource.POLLING_SKYPE, e, false);
+            }
+            if (!missed.isEmpty()) {
+                logger.fine("Backfilled " + missed.size() + " messages in " + load.getKey());
+            }
+        }
+    }
+
+    private List<String> loadConversationsSince(long since) throws ConnectionException {
+        JsonObject page = Endpoints.LOAD_CHATS
+                .open(this, Math.max(since, 0), BACKFILL_PAGE_SIZE)
+                .as(JsonObject.class)
+                .expect(200, "While loading active conversations")
+                .get();
+        List<String> conversations = new ArrayList<>();
+        pageBack(page, "conversations", since, conversation -> {
+            JsonValue lastMessage = conversation.get("lastMessage");
+            // Trust the server about conversations which do not say when they were last active
+            return lastMessage != null && lastMessage.isObject() ? MessageTracker.arrivalTime(lastMessage.asObject()) : Long.MAX_VALUE;
+        }, "active conversations", conversation -> conversations.add(conversation.get("id").asString()));
+        return conversations;
+    }
+
+    private List<JsonObject> loadMessagesSince(String conversation, long since) throws ConnectionException {
+        JsonObject page = Endpoints.LOAD_MESSAGES
+                .open(this, conversation, Math.max(since, 0), BACKFILL_PAGE_SIZE)
+                .as(JsonObject.class)
+                .expect(200, "While loading missed messages")
+                .get();
+        List<JsonObject> messages = new ArrayList<>();
+        pageBack(page, "messages", since, MessageTracker::arrivalTime, "missed messages in " + conversation, messages::add);
+        // Pages are returned newest first, but events must be handled in the order they were sent. Reversing first keeps
+        // messages which arrived in the same millisecond in order, as the sort is stable
+        Collections.reverse(messages);
+        messages.sort(Comparator.comparingLong(MessageTracker::arrivalTime));
+        return messages;
+    }
+
+    /**
+     * Walk a listing whose pages go back in time, handing every entry from since onwards to the consumer. Entries before
+     * since are dropped, in case the server ignored the start time it was given
+     */
+    private void pageBack(JsonObject page, String key, long since, ToLongFunction<JsonObject> time, String what,
+                          Consumer<JsonObject> consumer) throws ConnectionException {
+        for (int pages = 1; ; pages++) {
+            long oldest = Long.MAX_VALUE;
+            JsonValue array = page.get(key);
+            if (array != null) {
+                for (JsonValue value : array.asArray()) {
+                    long at = time.applyAsLong(value.asObject());
+                    oldest = Math.min(oldest, at);
+                    if (at >= since) {
+                        consumer.accept(value.asObject());
+                    }
+                }
+            }
+            JsonValue metadata = page.get("_metadata");
+            String backwardLink = metadata == null ? null : Utils.getString(metadata.asObject(), "backwardLink");
+            // Stop once a page reaches back to where the client left off
+            if (backwardLink == null || oldest <= since || oldest == Long.MAX_VALUE) {
+                return;
+            }
+            if (pages == BACKFILL_MAX_PAGES) {
+                handleError(ErrorSource.POLLING_SKYPE, new IllegalStateException(String.format(
+                        "Stopped loading %s after %s pages, older ones were skipped", what, pages)), false);
+                return;
+            }
+            page = Endpoints
+                    .custom(backwardLink, this)
+                    .header("RegistrationToken", getRegistrationToken())
+                    .as(JsonObject.class)
+                    .expect(200, "While loading " + what)
+                    .get();
+        }
+    }
+
+    public EventQueue getEventQueue() {
+        return this.eventQueue;
+    }
+
+    public void setEventQueue(int capacity, OverflowPolicy overflowPolicy) {
+        Validate.isTrue(capacity > 0, "Capacity must be positive");
+        Validate.notNull(overflowPolicy, "Overflow policy must not be null");
+        this.eventQueueCapacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    private void closeEventQueue() {
+        if (eventQueue != null) {
+            try {
+                eventQueue.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void handleEvent(JsonObject eventObj) {
+        EventType type = EventType.getByName(eventObj.get("resourceType").asString());
+        if (type == EventType.NEW_MESSAGE && !messageTracker.markSeen(eventObj)) {
+            // Already delivered, either by an earlier poll or by a backfill
+            return;
+        }
+        if (type != null) {
+            try {
+                type.handle(this, eventObj);
+            } catch (Throwable t) {
+                handleError(ErrorSource.PARSING_MESSAGE, t, false);
+            }
+        } else {
+            handleError(ErrorSource.NO_MESSAGE_TYPE, null, false);
+        }
+    }
+
+    public void setEventThreads(int eventThreads) {
+        Validate.isTrue(eventThreads > 0, "Need at least one event thread");
+        this.eventThreads = eventThreads;
+    }
+
     public String getUsername() {
         return this.username;
     }
@@ -54,34 +54,36 @@ public class SkypeWebSocket extends WebSocketClient {
         super(uri, new Draft_17(), null, 2000);
         this.skype = skype;
         this.singleThreaded = Executors.newSingleThreadExecutor(new SkypeThreadFactory(skype, "WSFactory"));
-        TrustManager[] trustAllCerts = new TrustManager[]{new TrustAllManager()};
-        SSLContext sc = SSLContext.getInstance("SSL");
-        sc.init(null, trustAllCerts, new java.security.SecureRandom());
-        this.setWebSocketFactory(new DefaultSSLWebSocketClientFactory(sc, singleThreaded) {
-            private boolean called = false;
-
-            @Override
-            public ByteChannel wrapChannel(SocketChannel channel, SelectionKey key, String host, int port) throws IOException {
-                if (!called) {
-                    Thread.currentThread().setName("Skype4J-WSMainThread-" + skype.getUsername());
-                }
-                SSLEngine e = sslcontext.createSSLEngine(host, port);
-                e.setUseClientMode(true);
-                ByteChannel c = new SSLSocketChannel2(channel, e, exec, key) {
-                    private boolean called = false;
-
-                    @Override
-                    public int write(ByteBuffer buffer) throws IOException {
-                        if (!called) {
-                            Thread.currentThread().setName("Skype4J-WSWriteThread-" + skype.getUsername());
-                            called = true;
-                        }
-                        return super.write(buffer);
+        if ("wss".equals(uri.getScheme())) {
+            TrustManager[] trustAllCerts = new TrustManager[]{new TrustAllManager()};
+            SSLContext sc = SSLContext.getInstance("SSL");
+            sc.init(null, trustAllCerts, new java.security.SecureRandom());
+            this.setWebSocketFactory(new DefaultSSLWebSocketClientFactory(sc, singleThreaded) {
+                private boolean called = false;
+
+                @Override
+                public ByteChannel wrapChannel(SocketChannel channel, SelectionKey key, String host, int port) throws IOException {
+                    if (!called) {
+                        Thread.currentThread().setName("Skype4J-WSMainThread-" + skype.getUsername());
                     }
-                };
-                return c;
-            }
-        });
+                    SSLEngine e = sslcontext.createSSLEngine(host, port);
+                    e.setUseClientMode(true);
+                    ByteChannel c = new SSLSocketChannel2(channel, e, exec, key) {
+                        private boolean called = false;
+
+                        @Override
+                        public int write(ByteBuffer buffer) throws IOException {
+                            if (!called) {
+                                Thread.currentThread().setName("Skype4J-WSWriteThread-" + skype.getUsername());
+                                called = true;
+                            }
+                            return super.write(buffer);
+                        }
+                    };
+                    return c;
+                }
+            });
+        }
     }
 
     @Override
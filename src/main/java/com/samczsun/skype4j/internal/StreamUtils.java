@@ -17,8 +17,53 @@
 package com.samczsun.skype4j.internal;
 
 import java.io.*;
+import java.net.HttpURLConnection;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 public class StreamUtils {
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    /**
+     * Get the response body of a connection, decompressed according to its Content-Encoding
+     */
+    public static InputStream getInputStream(HttpURLConnection connection) throws IOException {
+        return decode(connection.getContentEncoding(), connection.getInputStream());
+    }
+
+    /**
+     * Get the error body of a connection, decompressed according to its Content-Encoding. May be null
+     */
+    public static InputStream getErrorStream(HttpURLConnection connection) throws IOException {
+        return decode(connection.getContentEncoding(), connection.getErrorStream());
+    }
+
+    public static InputStream decode(String encoding, InputStream in) throws IOException {
+        if (in == null || encoding == null) {
+            return in;
+        }
+        encoding = encoding.trim();
+        if (encoding.equalsIgnoreCase("gzip") || encoding.equalsIgnoreCase("x-gzip")) {
+            return new GZIPInputStream(in);
+        } else if (encoding.equalsIgnoreCase("deflate")) {
+            // Servers disagree on whether deflate includes the zlib wrapper, so check for its header
+            PushbackInputStream pushback = new PushbackInputStream(in, 2);
+            int first = pushback.read();
+            if (first == -1) {
+                return pushback;
+            }
+            int second = pushback.read();
+            if (second != -1) {
+                pushback.unread(second);
+            }
+            pushback.unread(first);
+            boolean zlib = second != -1 && (first & 0x0F) == 8 && ((first << 8) | second) % 31 == 0;
+            return new InflaterInputStream(pushback, new Inflater(!zlib));
+        }
+        return in;
+    }
+
     public static String readFully(InputStream in) throws IOException {
         ByteArrayOutputStream out = new ByteArrayOutputStream();
         byte[] chunk = new byte[2048];
@@ -33,6 +78,14 @@ public class StreamUtils {
         return new ByteArrayInputStream(out.toByteArray());
     }
 
+    public static byte[] readAllBytes(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            copy(stream, out);
+            return out.toByteArray();
+        }
+    }
+
     public static void copy(InputStream in, OutputStream out) throws IOException {
         byte[] chunk = new byte[2048];
         int read;
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A URL pattern using {@code %s} placeholders, parsed once into literal segments and slots so that rendering
+ * does not need to go through {@link String#format(String, Object...)} on every request.
+ *
+ * Only {@code %s} and {@code %%} are supported. Extra arguments are ignored, like {@link String#format} does.
+ */
+public class UrlTemplate {
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final String[] literals;
+    private final int length;
+
+    private UrlTemplate(String[] literals) {
+        this.literals = literals;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.length = length;
+    }
+
+    public static UrlTemplate compile(String template) {
+        List<String> literals = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c != '%') {
+                current.append(c);
+                continue;
+            }
+            if (i + 1 >= template.length()) {
+                throw new IllegalArgumentException("Dangling % in " + template);
+            }
+            char spec = template.charAt(++i);
+            if (spec == '%') {
+                current.append('%');
+            } else if (spec == 's') {
+                literals.add(current.toString());
+                current.setLength(0);
+            } else {
+                throw new IllegalArgumentException("Unsupported format specifier %" + spec + " in " + template);
+            }
+        }
+        literals.add(current.toString());
+        return new UrlTemplate(literals.toArray(new String[literals.size()]));
+    }
+
+    public int getSlotCount() {
+        return literals.length - 1;
+    }
+
+    public String render(Object... args) {
+        return render(null, false, args);
+    }
+
+    /**
+     * Render this template, filling the first slot with the given prefix and the remaining slots with the arguments
+     *
+     * @param prefix The value of the first slot
+     * @param args   The values of the remaining slots
+     * @return The rendered URL
+     */
+    public String renderWithPrefix(String prefix, Object... args) {
+        return render(prefix, true, args);
+    }
+
+    private String render(String prefix, boolean hasPrefix, Object[] args) {
+        int offset = hasPrefix ? 1 : 0;
+        if (args.length + offset < getSlotCount()) {
+            throw new IllegalArgumentException(String.format("Expected %s arguments but got %s", getSlotCount() - offset, args.length));
+        }
+        StringBuilder builder = BUILDER.get();
+        builder.setLength(0);
+        builder.ensureCapacity(length + 32 * getSlotCount());
+        builder.append(literals[0]);
+        for (int i = 1; i < literals.length; i++) {
+            if (hasPrefix && i == 1) {
+                builder.append(prefix);
+            } else {
+                builder.append(args[i - 1 - offset]);
+            }
+            builder.append(literals[i]);
+        }
+        return builder.toString();
+    }
+}
@@ -33,6 +33,7 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -58,7 +59,31 @@ public class Utils {
         return upload(image, uploadType, null, chat);
     }
 
+    public static String uploadImage(RequestBody image, ImageType uploadType, ChatImpl chat) throws ConnectionException {
+        return upload(image, uploadType, null, chat);
+    }
+
     public static String upload(byte[] data, ImageType type, JsonObject extra, ChatImpl chat) throws ConnectionException {
+        return upload(RequestBody.of(data), type, extra, chat);
+    }
+
+    public static String upload(RequestBody data, ImageType type, JsonObject extra, ChatImpl chat) throws ConnectionException {
+        String id = uploadContent(data, type, extra, chat);
+        ReadinessWaiter.get(awaitReady(id, type, chat), "While getting upload status");
+        return id;
+    }
+
+    /**
+     * Upload on the async executor, completing once the server has processed the object. No thread is held while
+     * waiting for the object to become ready
+     */
+    public static CompletableFuture<String> uploadAsync(RequestBody data, ImageType type, JsonObject extra, ChatImpl chat) {
+        return chat.getClient()
+                .supplyAsync(() -> uploadContent(data, type, extra, chat))
+                .thenCompose(id -> awaitReady(id, type, chat).thenApply(status -> id));
+    }
+
+    private static String uploadContent(RequestBody data, ImageType type, JsonObject extra, ChatImpl chat) throws ConnectionException {
         JsonObject obj = new JsonObject();
         obj.add("type", type.mime);
         obj.add("permissions", new JsonObject().add(chat.getIdentity(), new JsonArray().add("read")));
@@ -77,18 +102,18 @@ public class Utils {
                 .header("Content-Type", "multipart/form-data")
                 .expect(201, "While uploading data")
                 .connect("PUT", data);
+        return id;
+    }
 
+    private static CompletableFuture<JsonObject> awaitReady(String id, ImageType type, ChatImpl chat) {
         Endpoints.EndpointConnection<JsonObject> econn = Endpoints.IMG_STATUS
                 .open(chat.getClient(), id, type.id)
                 .as(JsonObject.class)
                 .expect(200, "While getting upload status");
-        while (true) {
+        return chat.getClient().getReadinessWaiter().await(() -> {
             JsonObject status = econn.get();
-            if (status.get("view_state").asString().equals("ready")) {
-                break;
-            }
-        }
-        return id;
+            return status.get("view_state").asString().equals("ready") ? status : null;
+        }, ReadinessWaiter.DEFAULT_TIMEOUT);
     }
 
     public static String getString(JsonObject object, String key) {
@@ -117,6 +142,10 @@ public class Utils {
             this.endpoint = endpoint;
             this.id = id;
         }
+
+        public String getEndpoint() {
+            return this.endpoint;
+        }
     }
 
     public static <T> Stream<T> asStream(Iterable<T> sourceIterable) {
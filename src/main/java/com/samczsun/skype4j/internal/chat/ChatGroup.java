@@ -23,7 +23,9 @@ import com.samczsun.skype4j.chat.GroupChat;
 import com.samczsun.skype4j.exceptions.ChatNotFoundException;
 import com.samczsun.skype4j.exceptions.ConnectionException;
 import com.samczsun.skype4j.internal.Endpoints;
+import com.samczsun.skype4j.internal.ExceptionHandler;
 import com.samczsun.skype4j.internal.Factory;
+import com.samczsun.skype4j.internal.RequestBody;
 import com.samczsun.skype4j.internal.SkypeImpl;
 import com.samczsun.skype4j.internal.participants.BotImpl;
 import com.samczsun.skype4j.internal.participants.ParticipantImpl;
@@ -34,12 +36,12 @@ import com.samczsun.skype4j.participants.Participant;
 import com.samczsun.skype4j.participants.info.Contact;
 
 import javax.imageio.ImageIO;
-import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -47,8 +49,6 @@ public class ChatGroup extends ChatImpl implements GroupChat {
 
     private String topic;
     private String pictureUrl;
-    private boolean pictureUpdated;
-    private BufferedImage picture;
 
     private Set<Option> enabledOptions = new HashSet<>();
 
@@ -81,7 +81,7 @@ public class ChatGroup extends ChatImpl implements GroupChat {
             this.topic = "";
         }
         if (props.get("picture") != null) {
-            this.pictureUrl = props.get("picture").asString().substring(4);
+            updatePicture(props.get("picture").asString().substring(4));
         }
         JsonArray members = object.get("members").asArray();
         for (JsonValue element : members) {
@@ -229,26 +229,34 @@ public class ChatGroup extends ChatImpl implements GroupChat {
 
     @Override
     public BufferedImage getPicture() throws ConnectionException {
-        if (pictureUrl != null) {
-            if (pictureUpdated) {
-                picture = null;
-                pictureUpdated = false;
-            }
-            if (picture == null) {
-                this.picture = Endpoints
-                        .custom(pictureUrl, getClient())
-                        .as(BufferedImage.class)
-                        .expect(200, "While fetching image")
-                        .header("Authorization", Endpoints.AUTHORIZATION.provide(getClient()))
-                        .get();
-            }
-            BufferedImage clone = new BufferedImage(picture.getWidth(), picture.getHeight(), picture.getType());
-            Graphics2D g2d = clone.createGraphics();
-            g2d.drawImage(picture, 0, 0, null);
-            g2d.dispose();
-            return clone;
+        byte[] data = loadPicture();
+        if (data == null) {
+            return null;
+        }
+        try {
+            return ImageIO.read(new ByteArrayInputStream(data));
+        } catch (IOException e) {
+            throw ExceptionHandler.generateException("While decoding image", e);
+        }
+    }
+
+    @Override
+    public ByteBuffer getPictureData() throws ConnectionException {
+        byte[] data = loadPicture();
+        return data == null ? null : ByteBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    private byte[] loadPicture() throws ConnectionException {
+        String url = this.pictureUrl;
+        if (url == null) {
+            return null;
         }
-        return null;
+        return getClient().getImageCache().get(url, () -> Endpoints
+                .custom(url, getClient())
+                .as(byte[].class)
+                .expect(200, "While fetching image")
+                .header("Authorization", Endpoints.AUTHORIZATION.provide(getClient()))
+                .get());
     }
 
     @Override
@@ -262,8 +270,7 @@ public class ChatGroup extends ChatImpl implements GroupChat {
 
     @Override
     public void setImage(File image) throws ConnectionException, IOException {
-        byte[] data = Files.readAllBytes(image.toPath());
-        String id = Utils.uploadImage(data, Utils.ImageType.AVATAR, this);
+        String id = Utils.uploadImage(RequestBody.of(image.toPath()), Utils.ImageType.AVATAR, this);
         putOption("picture", JsonValue.valueOf(
                 String.format("URL@https://api.asm.skype.com/v1/objects/%s/views/avatar_fullsize", id)), true);
     }
@@ -292,8 +299,10 @@ public class ChatGroup extends ChatImpl implements GroupChat {
     }
 
     public void updatePicture(String picture) {
+        if (this.pictureUrl != null && !this.pictureUrl.equals(picture)) {
+            getClient().getImageCache().invalidate(this.pictureUrl);
+        }
         this.pictureUrl = picture;
-        pictureUpdated = true;
     }
 
     public void updateOption(Option option, boolean enabled) {
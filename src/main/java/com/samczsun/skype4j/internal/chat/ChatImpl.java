@@ -31,23 +31,27 @@ import com.samczsun.skype4j.internal.chat.messages.ChatMessageImpl;
 import com.samczsun.skype4j.internal.participants.ParticipantImpl;
 import com.samczsun.skype4j.internal.participants.UserImpl;
 import com.samczsun.skype4j.internal.threads.TypingThread;
+import com.samczsun.skype4j.internal.utils.JsonStreamReader;
 import com.samczsun.skype4j.participants.Participant;
 import com.samczsun.skype4j.participants.info.Contact;
+import com.samczsun.skype4j.transport.ProgressListener;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.regex.Matcher;
 
 public abstract class ChatImpl implements Chat {
+    private static final int MAX_PARALLEL_UPLOADS = 4;
+
     protected final Map<String, ParticipantImpl> users = Collections.synchronizedMap(new HashMap<>());
     protected final List<ChatMessage> messages = new CopyOnWriteArrayList<>();
 
@@ -68,16 +72,17 @@ public abstract class ChatImpl implements Chat {
     @Override
     public ChatMessage sendMessage(Message message) throws ConnectionException {
         long ms = System.currentTimeMillis();
+        String clientId = getClient().nextClientMessageId();
 
         JsonObject obj = new JsonObject();
         obj.add("content", message.write());
         obj.add("messagetype", "RichText");
         obj.add("contenttype", "text");
-        obj.add("clientmessageid", String.valueOf(ms));
+        obj.add("clientmessageid", clientId);
 
         Endpoints.SEND_MESSAGE_URL.open(getClient(), getIdentity()).expect(201, "While sending message").post(obj);
 
-        return Factory.createMessage(this, getSelf(), null, String.valueOf(ms), ms, message,
+        return Factory.createMessage(this, getSelf(), null, clientId, ms, message,
                 getClient());
     }
 
@@ -87,15 +92,23 @@ public abstract class ChatImpl implements Chat {
     }
 
     @Override
-    public void sendContact(Contact contact) throws ConnectionException {
-        long ms = System.currentTimeMillis();
+    public CompletableFuture<ChatMessage> sendMessageAsync(Message message) {
+        return getClient().supplyAsync(() -> sendMessage(message));
+    }
 
+    @Override
+    public CompletableFuture<ChatMessage> sendMessageAsync(String plainMessage) {
+        return sendMessageAsync(Message.create().with(Text.plain(plainMessage)));
+    }
+
+    @Override
+    public void sendContact(Contact contact) throws ConnectionException {
         JsonObject obj = new JsonObject();
         obj.add("content", String.format("<contacts><c t=\"s\" s=\"%s\" f=\"%s\"/></contacts>", contact.getUsername(),
                 contact.getDisplayName()));
         obj.add("messagetype", "RichText/Contacts");
         obj.add("contenttype", "text");
-        obj.add("clientmessageid", String.valueOf(ms));
+        obj.add("clientmessageid", getClient().nextClientMessageId());
 
         Endpoints.SEND_MESSAGE_URL.open(getClient(), getIdentity()).expect(201, "While sending message").post(obj);
     }
@@ -104,76 +117,106 @@ public abstract class ChatImpl implements Chat {
     public void sendImage(BufferedImage image, String imageType, String imageName) throws ConnectionException, IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         ImageIO.write(image, imageType, baos);
-        sendImage(baos.toByteArray(), imageName);
+        sendImage(RequestBody.of(baos.toByteArray()), imageName);
     }
 
     @Override
     public void sendImage(File image) throws ConnectionException, IOException {
-        byte[] data = Files.readAllBytes(image.toPath());
         String name = image.getName().substring(0, image.getName().lastIndexOf('.'));
-        sendImage(data, name);
+        sendImage(RequestBody.of(image.toPath()), name);
     }
 
-    private void sendImage(byte[] data, String imageName) throws ConnectionException, IOException {
+    private void sendImage(RequestBody data, String imageName) throws ConnectionException, IOException {
         String id = Utils.uploadImage(data, Utils.ImageType.IMGT1, this);
-        long ms = System.currentTimeMillis();
         String content = "<URIObject type=\"Picture.1\" uri=\"https://api.asm.skype.com/v1/objects/%s\" url_thumbnail=\"https://api.asm.skype.com/v1/objects/%s/views/imgt1\">MyLegacy pish <a href=\"https://api.asm.skype.com/s/i?%s\">https://api.asm.skype.com/s/i?%s</a><Title/><Description/><OriginalName v=\"%s\"/><meta type=\"photo\" originalName=\"%s\"/></URIObject>";
         content = String.format(content, id, id, id, id, imageName, imageName);
         JsonObject obj = new JsonObject();
         obj.add("content", content);
         obj.add("messagetype", "RichText/UriObject");
         obj.add("contenttype", "text");
-        obj.add("clientmessageid", String.valueOf(ms));
+        obj.add("clientmessageid", getClient().nextClientMessageId());
 
         Endpoints.SEND_MESSAGE_URL.open(getClient(), getIdentity()).expect(201, "While sending message").post(obj);
     }
 
     @Override
     public void sendFile(File file) throws ConnectionException {
+        sendFile(file, null);
+    }
+
+    @Override
+    public void sendFile(File file, ProgressListener listener) throws ConnectionException {
         try {
-            FileInputStream in = new FileInputStream(file);
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            StreamUtils.copy(in, out);
-            String id = Utils.upload(out.toByteArray(), Utils.ImageType.FILE,
+            RequestBody body = RequestBody.of(file.toPath());
+            if (listener != null) {
+                body.withProgress(listener);
+            }
+            String id = Utils.upload(body, Utils.ImageType.FILE,
                     new JsonObject().add("filename", file.getName()), this);
-            long ms = System.currentTimeMillis();
-            String content = "<URIObject type=\"File.1\" uri=\"https://api.asm.skype.com/v1/objects/%s\" url_thumbnail=\"https://api.asm.skype.com/v1/objects/%s/views/thumbnail\"><Title>Title: %s</Title><Description> Description: %s</Description><a href=\"https://login.skype.com/login/sso?go=webclient.xmm&amp;docid=%s\"> https://login.skype.com/login/sso?go=webclient.xmm&amp;docid=%s</a><OriginalName v=\"%s\"/><FileSize v=\"%s\"/></URIObject>";
-            content = String.format(content, id, id, file.getName(), file.getName(), id, id, file.getName(),
-                    out.size());
-            JsonObject obj = new JsonObject();
-            obj.add("content", content);
-            obj.add("messagetype", "RichText/Media_GenericFile");
-            obj.add("contenttype", "text");
-            obj.add("clientmessageid", String.valueOf(ms));
-
-            Endpoints.SEND_MESSAGE_URL.open(getClient(), getIdentity()).expect(201, "While sending message").post(obj);
+            postFile(file, id, body.length());
         } catch (IOException e) {
             throw ExceptionHandler.generateException("While sending message", e);
         }
     }
 
+    @Override
+    public void sendFiles(Collection<File> files) throws ConnectionException {
+        List<File> ordered = new ArrayList<>(files);
+        List<CompletableFuture<String>> uploads = new ArrayList<>(ordered.size());
+        try {
+            for (int i = 0; i < ordered.size(); i++) {
+                File file = ordered.get(i);
+                RequestBody body = RequestBody.of(file.toPath());
+                // Each upload starts once the one MAX_PARALLEL_UPLOADS places ahead of it has finished
+                CompletableFuture<?> previous = i < MAX_PARALLEL_UPLOADS
+                        ? CompletableFuture.completedFuture(null) : uploads.get(i - MAX_PARALLEL_UPLOADS);
+                uploads.add(previous.handle((result, failure) -> null).thenCompose(ignored -> Utils.uploadAsync(body,
+                        Utils.ImageType.FILE, new JsonObject().add("filename", file.getName()), this)));
+            }
+            for (int i = 0; i < ordered.size(); i++) {
+                File file = ordered.get(i);
+                postFile(file, ReadinessWaiter.get(uploads.get(i), "While uploading file"), file.length());
+            }
+        } catch (IOException e) {
+            throw ExceptionHandler.generateException("While sending message", e);
+        } finally {
+            uploads.forEach(upload -> upload.cancel(false));
+        }
+    }
+
+    private void postFile(File file, String id, long size) throws ConnectionException {
+        String content = "<URIObject type=\"File.1\" uri=\"https://api.asm.skype.com/v1/objects/%s\" url_thumbnail=\"https://api.asm.skype.com/v1/objects/%s/views/thumbnail\"><Title>Title: %s</Title><Description> Description: %s</Description><a href=\"https://login.skype.com/login/sso?go=webclient.xmm&amp;docid=%s\"> https://login.skype.com/login/sso?go=webclient.xmm&amp;docid=%s</a><OriginalName v=\"%s\"/><FileSize v=\"%s\"/></URIObject>";
+        content = String.format(content, id, id, file.getName(), file.getName(), id, id, file.getName(), size);
+        JsonObject obj = new JsonObject();
+        obj.add("content", content);
+        obj.add("messagetype", "RichText/Media_GenericFile");
+        obj.add("contenttype", "text");
+        obj.add("clientmessageid", getClient().nextClientMessageId());
+
+        Endpoints.SEND_MESSAGE_URL.open(getClient(), getIdentity()).expect(201, "While sending message").post(obj);
+    }
+
     @Override
     public void sendMoji(IMoji flik) throws ConnectionException {
-        long ms = System.currentTimeMillis();
         String content = "<URIObject type=\"Video.1/Flik.1\" uri=\"https://static.asm.skype.com/pes/v1/items/%s\" url_thumbnail=\"https://static.asm.skype.com/pes/v1/items/%s/views/thumbnail\"><a href=\"https://static.asm.skype.com/pes/v1/items/%s/views/default\">https://static.asm.skype.com/pes/v1/items/%s/views/default</a><OriginalName v=\"\"/></URIObject>";
         content = String.format(content, flik.getId(), flik.getId(), flik.getId(), flik.getId());
         JsonObject obj = new JsonObject();
         obj.add("content", content);
         obj.add("messagetype", "RichText/Media_FlikMsg");
         obj.add("contenttype", "text");
-        obj.add("clientmessageid", String.valueOf(ms));
+        obj.add("clientmessageid", getClient().nextClientMessageId());
 
         Endpoints.SEND_MESSAGE_URL.open(getClient(), getIdentity()).expect(201, "While sending message").post(obj);
     }
 
     @Override
     public List<ChatMessage> loadMoreMessages(int amount) throws ConnectionException {
-        JsonObject data;
+        InputStream input;
         if (backwardLink == null) {
             if (syncState == null) {
-                data = Endpoints.LOAD_MESSAGES
-                        .open(getClient(), getIdentity(), amount)
-                        .as(JsonObject.class)
+                input = Endpoints.LOAD_MESSAGES
+                        .open(getClient(), getIdentity(), 0, amount)
+                        .as(InputStream.class)
                         .expect(200, "While loading messages")
                         .get();
             } else {
@@ -184,42 +227,40 @@ public abstract class ChatImpl implements Chat {
             //Matcher find appears to be doing nothing.
             matcher.find();
             String url = matcher.replaceAll("pageSize=" + amount);
-            data =  Endpoints
+            input = Endpoints
                     .custom(url, getClient())
                     .header("RegistrationToken", getClient().getRegistrationToken())
-                    .as(JsonObject.class)
+                    .as(InputStream.class)
                     .expect(200, "While loading messages")
                     .get();
         }
         List<ChatMessage> messages = new ArrayList<>();
-
-        for (JsonValue value : data.get("messages").asArray()) {
-            try {
-                JsonObject msg = value.asObject();
-                if (msg.get("messagetype").asString().equals("RichText") || msg.get("messagetype").asString().equals("Text")) {
-                    UserImpl u = (UserImpl) MessageType.getUser(msg.get("from").asString(), this);
-                    Message message = Message.fromHtml(MessageType.stripMetadata(msg.get("content").asString()));
-                    if (msg.get("clientmessageid") != null) {
-                        ChatMessage m = Factory.createMessage(this, u, msg.get("id").asString(),
-                                msg.get("clientmessageid").asString(),
-                                formatter.parse(msg.get("originalarrivaltime").asString()).getTime(), message
-                                ,getClient());
-                        this.messages.add(0, m);
-                        u.insertMessage(m, 0);
-                        messages.add(m);
-                    } else {
-                        ChatMessageImpl chatMessage = (ChatMessageImpl) u.getMessageById(msg.get("skypeeditedid").asString());
-                        if (chatMessage != null) {
-                            chatMessage.edit0(message);
+        JsonObject metadata = null;
+
+        try (JsonStreamReader reader = new JsonStreamReader(input)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("messages")) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        ChatMessage m = loadMessage(reader.nextValue().asObject());
+                        if (m != null) {
+                            messages.add(m);
                         }
                     }
+                    reader.endArray();
+                } else if (name.equals("_metadata")) {
+                    metadata = reader.nextValue().asObject();
+                } else {
+                    reader.skipValue();
                 }
-            } catch (ParseException e) {
-                throw new RuntimeException(e);
             }
+            reader.endObject();
+        } catch (IOException e) {
+            throw ExceptionHandler.generateException("While loading messages", e);
         }
 
-        JsonObject metadata = data.get("_metadata").asObject();
         if (metadata.get("backwardLink") != null) {
             this.backwardLink = metadata.get("backwardLink").asString();
         } else {
@@ -229,6 +270,37 @@ public abstract class ChatImpl implements Chat {
         return messages;
     }
 
+    private ChatMessage loadMessage(JsonObject msg) throws ConnectionException {
+        try {
+            if (msg.get("messagetype").asString().equals("RichText") || msg.get("messagetype").asString().equals("Text")) {
+                UserImpl u = (UserImpl) MessageType.getUser(msg.get("from").asString(), this);
+                Message message = Message.fromHtml(MessageType.stripMetadata(msg.get("content").asString()));
+                if (msg.get("clientmessageid") != null) {
+                    ChatMessage m = Factory.createMessage(this, u, msg.get("id").asString(),
+                            msg.get("clientmessageid").asString(),
+                            formatter.parse(msg.get("originalarrivaltime").asString()).getTime(), message
+                            ,getClient());
+                    this.messages.add(0, m);
+                    u.insertMessage(m, 0);
+                    return m;
+                } else {
+                    ChatMessageImpl chatMessage = (ChatMessageImpl) u.getMessageById(msg.get("skypeeditedid").asString());
+                    if (chatMessage != null) {
+                        chatMessage.edit0(message);
+                    }
+                }
+            }
+            return null;
+        } catch (ParseException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<ChatMessage>> loadMoreMessagesAsync(int amount) {
+        return getClient().supplyAsync(() -> loadMoreMessages(amount));
+    }
+
     @Override
     public Collection<Participant> getAllParticipants() {
         return Collections.unmodifiableCollection(users.values());
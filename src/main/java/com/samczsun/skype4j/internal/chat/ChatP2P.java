@@ -28,6 +28,7 @@ import com.samczsun.skype4j.internal.participants.ParticipantImpl;
 import com.samczsun.skype4j.internal.participants.UserImpl;
 import com.samczsun.skype4j.participants.Participant;
 import com.samczsun.skype4j.participants.info.Contact;
+import com.samczsun.skype4j.transport.ProgressListener;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
@@ -76,6 +77,16 @@ public class ChatP2P extends ChatImpl implements P2PChat {
         throw new UnsupportedOperationException("Unsupported operation on a P2P chat");
     }
 
+    @Override
+    public void sendFile(File file, ProgressListener listener) throws ConnectionException {
+        throw new UnsupportedOperationException("Unsupported operation on a P2P chat");
+    }
+
+    @Override
+    public void sendFiles(Collection<File> files) throws ConnectionException {
+        throw new UnsupportedOperationException("Unsupported operation on a P2P chat");
+    }
+
     @Override
     public void sendMoji(IMoji moji) throws ConnectionException {
         throw new UnsupportedOperationException("Unsupported operation on a P2P chat");
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.internal.chat.objects;
+
+import com.eclipsesource.json.JsonObject;
+import com.samczsun.skype4j.chat.objects.Downloadable;
+import com.samczsun.skype4j.exceptions.ConnectionException;
+import com.samczsun.skype4j.internal.Endpoints;
+import com.samczsun.skype4j.internal.ExceptionHandler;
+import com.samczsun.skype4j.internal.ReadinessWaiter;
+import com.samczsun.skype4j.internal.SkypeImpl;
+import com.samczsun.skype4j.internal.Utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A view of an object on the media servers, such as the full size version of a picture or the original of a file
+ */
+public class MediaObject implements Downloadable {
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
+    protected final SkypeImpl skype;
+    private final String id;
+    private final String view;
+
+    public MediaObject(SkypeImpl skype, String id, String view) {
+        this.skype = skype;
+        this.id = id;
+        this.view = view;
+    }
+
+    public String getId() {
+        return this.id;
+    }
+
+    @Override
+    public long download(OutputStream out) throws ConnectionException {
+        return download(out, 0);
+    }
+
+    @Override
+    public long download(OutputStream out, long offset) throws ConnectionException {
+        HttpURLConnection connection = open(offset);
+        try {
+            int code = connection.getResponseCode();
+            if (code == HTTP_RANGE_NOT_SATISFIABLE) {
+                return 0;
+            }
+            try (InputStream in = connection.getInputStream()) {
+                if (offset > 0 && code == HttpURLConnection.HTTP_OK) {
+                    // The server ignored the range, so skip what was asked to be skipped
+                    for (long skipped = 0; skipped < offset; ) {
+                        long amount = in.skip(offset - skipped);
+                        if (amount <= 0) {
+                            if (in.read() == -1) return 0;
+                            amount = 1;
+                        }
+                        skipped += amount;
+                    }
+                }
+                byte[] buffer = new byte[64 * 1024];
+                long total = 0;
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    total += read;
+                }
+                return total;
+            }
+        } catch (IOException e) {
+            throw ExceptionHandler.generateException("While downloading media", e);
+        } finally {
+            skype.getTransport().release(connection);
+        }
+    }
+
+    @Override
+    public long download(Path path) throws ConnectionException {
+        try {
+            long offset = Files.exists(path) ? Files.size(path) : 0;
+            try (OutputStream out = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                return download(out, offset);
+            }
+        } catch (IOException e) {
+            throw ExceptionHandler.generateException("While downloading media", e);
+        }
+    }
+
+    /**
+     * Open a connection to the content once the server has finished processing it. The caller must release it
+     */
+    protected HttpURLConnection open(long offset) throws ConnectionException {
+        Endpoints.EndpointConnection<JsonObject> econn = Endpoints.IMG_STATUS
+                .open(skype, id, view)
+                .as(JsonObject.class)
+                .expect(200, "While getting media status");
+        JsonObject status = ReadinessWaiter.get(skype.getReadinessWaiter().await(() -> {
+            JsonObject result = econn.get();
+            return "ready".equalsIgnoreCase(Utils.getString(result, "content_state"))
+                    || "ready".equalsIgnoreCase(Utils.getString(result, "view_state")) ? result : null;
+        }, ReadinessWaiter.DEFAULT_TIMEOUT), "While getting media status");
+        Endpoints.EndpointConnection<HttpURLConnection> download = Endpoints
+                .custom(status.get("view_location").asString(), skype)
+                .header("Cookie", Endpoints.COOKIE.provide(skype))
+                .as(HttpURLConnection.class)
+                .expect(code -> code == HttpURLConnection.HTTP_OK || code == HttpURLConnection.HTTP_PARTIAL
+                        || (offset > 0 && code == HTTP_RANGE_NOT_SATISFIABLE), "While downloading media");
+        if (offset > 0) {
+            download.header("Range", "bytes=" + offset + "-");
+        }
+        return download.get();
+    }
+}
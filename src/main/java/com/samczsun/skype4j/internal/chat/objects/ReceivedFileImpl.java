@@ -17,16 +17,29 @@
 package com.samczsun.skype4j.internal.chat.objects;
 
 import com.samczsun.skype4j.chat.objects.ReceivedFile;
+import com.samczsun.skype4j.exceptions.ConnectionException;
+
+import java.io.OutputStream;
+import java.nio.file.Path;
 
 public class ReceivedFileImpl implements ReceivedFile {
     private final String name;
     private final long size;
     private final long tid;
+    private final MediaObject media;
 
     public ReceivedFileImpl(String name, long size, long tid) {
         this.name = name;
         this.size = size;
         this.tid = tid;
+        this.media = null;
+    }
+
+    public ReceivedFileImpl(String name, long size, MediaObject media) {
+        this.name = name;
+        this.size = size;
+        this.tid = 0;
+        this.media = media;
     }
 
     @Override
@@ -43,4 +56,31 @@ public class ReceivedFileImpl implements ReceivedFile {
     public long getTid() {
         return tid;
     }
+
+    @Override
+    public boolean isDownloadable() {
+        return media != null;
+    }
+
+    @Override
+    public long download(OutputStream out) throws ConnectionException {
+        return getMedia().download(out);
+    }
+
+    @Override
+    public long download(OutputStream out, long offset) throws ConnectionException {
+        return getMedia().download(out, offset);
+    }
+
+    @Override
+    public long download(Path path) throws ConnectionException {
+        return getMedia().download(path);
+    }
+
+    private MediaObject getMedia() {
+        if (media == null) {
+            throw new UnsupportedOperationException("Files sent peer to peer cannot be downloaded");
+        }
+        return media;
+    }
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.internal.chat.objects;
+
+import com.samczsun.skype4j.chat.objects.ReceivedPicture;
+import com.samczsun.skype4j.exceptions.ConnectionException;
+import com.samczsun.skype4j.internal.SkypeImpl;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+
+public class ReceivedPictureImpl extends MediaObject implements ReceivedPicture {
+    private final String name;
+
+    public ReceivedPictureImpl(SkypeImpl skype, String id, String name) {
+        super(skype, id, "imgpsh_fullsize");
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public BufferedImage decode() throws ConnectionException, IOException {
+        HttpURLConnection connection = open(0);
+        try (InputStream in = connection.getInputStream()) {
+            return ImageIO.read(in);
+        } finally {
+            skype.getTransport().release(connection);
+        }
+    }
+}
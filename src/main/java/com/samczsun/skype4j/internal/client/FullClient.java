@@ -33,11 +33,14 @@ import com.samczsun.skype4j.internal.*;
 import com.samczsun.skype4j.internal.participants.info.ContactImpl;
 import com.samczsun.skype4j.internal.participants.info.ContactRequestImpl;
 import com.samczsun.skype4j.internal.utils.Encoder;
+import com.samczsun.skype4j.internal.utils.JsonStreamReader;
 import com.samczsun.skype4j.internal.utils.UncheckedRunnable;
 import com.samczsun.skype4j.participants.info.Contact;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.HttpURLConnection;
+import java.net.URL;
 import java.net.URLDecoder;
 import java.net.UnknownHostException;
 import java.nio.charset.StandardCharsets;
@@ -69,11 +72,53 @@ public class FullClient extends SkypeImpl {
 
     @Override
     public void login() throws InvalidCredentialsException, ConnectionException, WrongPasswordException, AccountNotFoundException, SuspiciousLoginException, IOException, UnknownHostException, Exception {
+        JsonObject loginData = fetchSkypeToken();
+        this.setSkypeToken(loginData.get("skypetoken").asString());
+        this.setLiveUsername(loginData.get("skypeid").asString());
+
+        List<UncheckedRunnable> tasks = new ArrayList<>();
+        tasks.add(this::refreshAsmToken);
+        tasks.add(this::loadAllContacts);
+        tasks.add(() -> this.getContactRequests(false));
+        tasks.add(() -> {
+            try {
+                this.registerWebSocket();
+            } catch (Exception e) {
+                handleError(ErrorSource.REGISTERING_WEBSOCKET, e, false);
+            }
+        });
+        tasks.add(this::registerEndpoint);
+
+        try {
+            ExecutorService executorService = Executors.newFixedThreadPool(5);
+            tasks.forEach(executorService::submit);
+            executorService.shutdown();
+            executorService.awaitTermination(1, TimeUnit.DAYS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        
+        super.login();
+    }
+
+    /**
+     * Fetch new tokens while the session keeps running. The poller and the web socket pick up the new tokens with
+     * their next request, so no events are missed
+     */
+    @Override
+    public void refreshTokens() throws Exception {
+        JsonObject loginData = fetchSkypeToken();
+        this.setSkypeToken(loginData.get("skypetoken").asString());
+        refreshAsmToken();
+        refreshRegistrationToken();
+    }
+
+    private JsonObject fetchSkypeToken() throws InvalidCredentialsException, ConnectionException, WrongPasswordException, AccountNotFoundException, SuspiciousLoginException, IOException, UnknownHostException, Exception {
         logger.finer("Refreshing tokens");
     
         Response authorize = null;
         try {
-            authorize = Jsoup.connect(SERVER_HOSTNAME + "/oauth20_authorize.srf?client_id=00000000480BC46C&scope=service%3A%3Alw.skype.com%3A%3AMBI_SSL&response_type=token&redirect_uri=https%3A%2F%2Flogin.live.com%2Foauth20_desktop.srf&state=999&locale=en").maxBodySize(100 * 1024 * 1024).timeout(30000).method(Connection.Method.GET).ignoreContentType(true).ignoreHttpErrors(true).execute();
+            authorize = Jsoup.connect(getTransport().resolve(new URL(SERVER_HOSTNAME + "/oauth20_authorize.srf?client_id=00000000480BC46C&scope=service%3A%3Alw.skype.com%3A%3AMBI_SSL&response_type=token&redirect_uri=https%3A%2F%2Flogin.live.com%2Foauth20_desktop.srf&state=999&locale=en")).toString()).maxBodySize(100 * 1024 * 1024).timeout(30000).method(Connection.Method.GET).ignoreContentType(true).ignoreHttpErrors(true).execute();
         } catch (Exception ex) {
             this.handleError(ErrorSource.SESSION_ACTIVE, ex, false);
             Logger.getLogger(FullClient.class.getName()).log(Level.SEVERE, null, ex);
@@ -121,7 +166,7 @@ public class FullClient extends SkypeImpl {
 
         Connection.Response post = null;
         try {
-            post = Jsoup.connect(postUrl).data("PPFT", PPFT, "login", getUsername().toLowerCase(), "passwd", password).cookie("MSPOK", MSPOK).maxBodySize(100 * 1024 * 1024).timeout(30000).method(Connection.Method.POST).followRedirects(false).ignoreContentType(true).ignoreHttpErrors(true).execute();
+            post = Jsoup.connect(getTransport().resolve(new URL(postUrl)).toString()).data("PPFT", PPFT, "login", getUsername().toLowerCase(), "passwd", password).cookie("MSPOK", MSPOK).maxBodySize(100 * 1024 * 1024).timeout(30000).method(Connection.Method.POST).followRedirects(false).ignoreContentType(true).ignoreHttpErrors(true).execute();
         } catch (IOException ex) {
             Logger.getLogger(FullClient.class.getName()).log(Level.SEVERE, null, ex);
         }
@@ -188,41 +233,16 @@ public class FullClient extends SkypeImpl {
         data.put("site_name", "lw");
 
         logger.finer("Sending post request to: " + Endpoints.LOGIN_URL.url());
-        JsonObject loginData = Endpoints.LOGIN_URL.open(this)
+        return Endpoints.LOGIN_URL.open(this)
                 .as(JsonObject.class)
                 .expect(200, "While logging in")
                 .post(Encoder.encode(data));
+    }
 
-        this.setSkypeToken(loginData.get("skypetoken").asString());
-        this.setLiveUsername(loginData.get("skypeid").asString());
-
-        List<UncheckedRunnable> tasks = new ArrayList<>();
-        tasks.add(() -> {
-            HttpURLConnection asmResponse = getAsmToken();
-            String[] setCookie = asmResponse.getHeaderField("Set-Cookie").split(";")[0].split("=");
-            this.cookies.put(setCookie[0], setCookie[1]);
-        });
-        tasks.add(this::loadAllContacts);
-        tasks.add(() -> this.getContactRequests(false));
-        tasks.add(() -> {
-            try {
-                this.registerWebSocket();
-            } catch (Exception e) {
-                handleError(ErrorSource.REGISTERING_WEBSOCKET, e, false);
-            }
-        });
-        tasks.add(this::registerEndpoint);
-
-        try {
-            ExecutorService executorService = Executors.newFixedThreadPool(5);
-            tasks.forEach(executorService::submit);
-            executorService.shutdown();
-            executorService.awaitTermination(1, TimeUnit.DAYS);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
-        
-        super.login();
+    private void refreshAsmToken() throws ConnectionException {
+        HttpURLConnection asmResponse = getAsmToken();
+        String[] setCookie = asmResponse.getHeaderField("Set-Cookie").split(";")[0].split("=");
+        this.cookies.put(setCookie[0], setCookie[1]);
     }
 
     @Override
@@ -230,7 +250,7 @@ public class FullClient extends SkypeImpl {
         logger.finer("Sending get request to: " + Endpoints.LOGOUT_URL.url());
         if (!this.getEndpointId().isEmpty()) {
             Endpoints.LOGOUT_URL
-                .open(this, this.getEndpointId())
+                .open(this, Encoder.encode(this.getEndpointId()))
                 .noRedirects()
                 .expect(200, "While logging out")
                 .cookies(cookies)
@@ -241,37 +261,24 @@ public class FullClient extends SkypeImpl {
 
     @Override
     public void loadAllContacts() throws Exception {
-        int i = 0;
-        
-        JsonObject object = null;
         try {
             setProfileInfo(this);
             
             logger.finer("Sending get request to: " + Endpoints.GET_ALL_CONTACTS.url());
-            object = Endpoints.GET_ALL_CONTACTS
+            InputStream input = Endpoints.GET_ALL_CONTACTS
                 .open(this)
-                .as(JsonObject.class)
+                .as(InputStream.class)
                 .expect(200, "While loading contacts")
                 .get();
 
-            for (JsonValue value : object.get("contacts").asArray()) {
-
-                JsonObject obj = value.asObject();
+            readContacts(input, obj -> {
                 if (obj.get("suggested") == null || !obj.get("suggested").asBoolean()) {
                     if (!allContacts.containsKey(obj.get("person_id").asString())) {
                         logger.finer("Implementing contact: " + obj.get("person_id").asString());
                         this.allContacts.put(obj.get("person_id").asString(), new ContactImpl(this, obj));
                     }
                 }
-                i++;
-            }
-            for(JsonValue value : object.get("blocklist").asArray()) {
-                JsonObject obj = value.asObject();
-                if (!this.allContacts.containsKey(obj.get("mri").asString())) {
-                    this.allContacts.put(obj.get("mri").asString(), new ContactImpl(this, obj.get("mri").asString()));
-                }
-            }
-
+            });
         } catch (Exception e) {
             logger.severe("Error while send get request to: " + Endpoints.GET_ALL_CONTACTS.url() + e.getMessage());
         }  
@@ -305,40 +312,84 @@ public class FullClient extends SkypeImpl {
 
     @Override
     public void updateContactList() throws Exception {
-        int i = 0;
-        JsonObject object = null;
-
         try {
             setProfileInfo(this);
             
             logger.finer("Sending get request to: " + Endpoints.GET_ALL_CONTACTS.url());
-            object = Endpoints.GET_ALL_CONTACTS
+            InputStream input = Endpoints.GET_ALL_CONTACTS
                 .open(this, getUsername(), "notification")
-                .as(JsonObject.class)
+                .as(InputStream.class)
                 .expect(200, "While loading contacts")
                 .get();
 
-            for (JsonValue value : object.get("contacts").asArray()) {
-                if (value.asObject().get("suggested") == null || !value.asObject().get("suggested").asBoolean()) {
-                    String id = value.asObject().get("person_id").asString();
+            // Unknown contacts need a round trip of their own, which must not happen while the list is still open
+            Map<String, JsonObject> unknown = new LinkedHashMap<>();
+            readContacts(input, obj -> {
+                if (obj.get("suggested") == null || !obj.get("suggested").asBoolean()) {
+                    String id = obj.get("person_id").asString();
                     logger.finer("Updating contact: " + id);
                     ContactImpl impl = (ContactImpl) allContacts.get(id);
-                    if (impl == null) impl = (ContactImpl) loadContact(id);
-                    impl.update(value.asObject());
-                }
-                i++;
-            }
-            for(JsonValue value : object.get("blocklist").asArray()) {
-                JsonObject obj = value.asObject();
-                if (!this.allContacts.containsKey(obj.get("mri").asString())) {
-                    this.allContacts.put(obj.get("mri").asString(), new ContactImpl(this, obj.get("mri").asString()));
+                    if (impl == null) {
+                        unknown.put(id, obj);
+                    } else {
+                        impl.update(obj);
+                    }
                 }
+            });
+            for (Map.Entry<String, JsonObject> entry : unknown.entrySet()) {
+                ((ContactImpl) loadContact(entry.getKey())).update(entry.getValue());
             }
         } catch (Exception e) {
             logger.severe("Error while send get request to: " + Endpoints.GET_ALL_CONTACTS.url() + e.getMessage());
         }
     }
 
+    /**
+     * Walks the contact list response, handing each contact to the consumer as soon as it has been read.
+     * Blocked contacts are registered once all contacts have been handled. The stream is read to its end, so that the
+     * validators of the response are remembered, and closed afterwards. A null
+     * input means that the list was not modified since it was last read, in which case nothing happens
+     */
+    private void readContacts(InputStream input, ContactConsumer consumer) throws Exception {
+        if (input == null) {
+            // Not modified since the last time it was read
+            return;
+        }
+        List<String> blocked = new ArrayList<>();
+        try (JsonStreamReader reader = new JsonStreamReader(input)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("contacts")) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        consumer.accept(reader.nextValue().asObject());
+                    }
+                    reader.endArray();
+                } else if (name.equals("blocklist")) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        blocked.add(reader.nextValue().asObject().get("mri").asString());
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            reader.endDocument();
+        }
+        for (String mri : blocked) {
+            if (!this.allContacts.containsKey(mri)) {
+                this.allContacts.put(mri, new ContactImpl(this, mri));
+            }
+        }
+    }
+
+    private interface ContactConsumer {
+        void accept(JsonObject contact) throws Exception;
+    }
+
     @Override
     public GroupChat createGroupChat(Contact... contacts) throws ConnectionException {
         JsonObject obj = new JsonObject();
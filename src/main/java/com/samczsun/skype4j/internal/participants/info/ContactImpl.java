@@ -23,6 +23,7 @@ import com.samczsun.skype4j.exceptions.ChatNotFoundException;
 import com.samczsun.skype4j.exceptions.ConnectionException;
 import com.samczsun.skype4j.exceptions.NoSuchContactException;
 import com.samczsun.skype4j.internal.Endpoints;
+import com.samczsun.skype4j.internal.ExceptionHandler;
 import com.samczsun.skype4j.internal.SkypeImpl;
 import com.samczsun.skype4j.internal.Utils;
 import com.samczsun.skype4j.internal.client.FullClient;
@@ -30,10 +31,13 @@ import com.samczsun.skype4j.internal.utils.Encoder;
 import com.samczsun.skype4j.participants.info.Contact;
 import org.jsoup.helper.Validate;
 
-import java.awt.*;
+import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
 import java.util.UUID;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -98,7 +102,6 @@ public class ContactImpl implements Contact {
     private String gender;
     private String language;
     private String avatarURL;
-    private BufferedImage avatar;
     private String mood;
     private String richMood;
     private String country;
@@ -212,23 +215,40 @@ public class ContactImpl implements Contact {
 
     @Override
     public BufferedImage getAvatarPicture() throws ConnectionException {
-        if (this.avatarURL != null) {
-            if (this.avatar == null) {
-                //Casting might not be safe.
-                this.avatar = Endpoints
-                        .custom(this.avatarURL, skype)
-                        .expect(200, "While fetching avatar")
-                        .as(BufferedImage.class)
-                        .get();
+        byte[] data = loadAvatar();
+        if (data == null) {
+            return null;
+        }
+        try {
+            return ImageIO.read(new ByteArrayInputStream(data));
+        } catch (IOException e) {
+            throw ExceptionHandler.generateException("While decoding avatar", e);
+        }
+    }
 
-            }
-            BufferedImage clone = new BufferedImage(avatar.getWidth(), avatar.getHeight(), avatar.getType());
-            Graphics2D g2d = clone.createGraphics();
-            g2d.drawImage(avatar, 0, 0, null);
-            g2d.dispose();
-            return clone;
+    @Override
+    public ByteBuffer getAvatarData() throws ConnectionException {
+        byte[] data = loadAvatar();
+        return data == null ? null : ByteBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    private byte[] loadAvatar() throws ConnectionException {
+        String url = this.avatarURL;
+        if (url == null) {
+            return null;
         }
-        return null;
+        return skype.getImageCache().get(url, () -> Endpoints
+                .custom(url, skype)
+                .expect(200, "While fetching avatar")
+                .as(byte[].class)
+                .get());
+    }
+
+    private void setAvatarURL(String avatarURL) {
+        if (this.avatarURL != null && !this.avatarURL.equals(avatarURL)) {
+            skype.getImageCache().invalidate(this.avatarURL);
+        }
+        this.avatarURL = avatarURL;
     }
 
     @Override
@@ -339,7 +359,7 @@ public class ContactImpl implements Contact {
             this.isAuthorized = contact.get("authorized").asBoolean();
             this.isBlocked = contact.get("blocked").asBoolean();
             this.displayName = Utils.getString(contact, "display_name").replaceAll("[&<>/\",']", "");
-            this.avatarURL = Utils.getString(contact, "avatar_url");
+            setAvatarURL(Utils.getString(contact, "avatar_url"));
             this.mood = Utils.getString(contact, "mood");
             this.type = Utils.getString(contact, "type");
             this.authCertificate = Utils.getString(contact, "auth_certificate");
@@ -396,7 +416,7 @@ public class ContactImpl implements Contact {
             }
 
             this.language = Utils.getString(profile, "language");
-            this.avatarURL = Utils.getString(profile, "avatar_url");
+            setAvatarURL(Utils.getString(profile, "avatar_url"));
 
             if (this.displayName == null)
                 this.displayName = Utils.getString(profile, "displayname");
@@ -51,13 +51,28 @@ public class AuthenticationChecker extends Thread {
                     return;
                 }
                 try {
-                    skype.reauthenticate();
+                    skype.refreshTokens();
                 } catch (Exception e) {
-                    skype.handleError(ErrorSource.REAUTHENTICATING, e, true);
-                    //Don't see why you need to return in a finally block.
-                } finally {
+                    if (stop.get()) {
+                        return;
+                    }
+                    // Logging in again stops polling for a moment, but keeps the session alive
+                    skype.handleError(ErrorSource.REAUTHENTICATING, e, false);
+                    try {
+                        skype.reauthenticate();
+                    } catch (Exception e2) {
+                        skype.handleError(ErrorSource.REAUTHENTICATING, e2, true);
+                    }
                     return;
                 }
+                // Tokens which are short-lived to begin with would otherwise be refreshed in a tight loop
+                long remaining = skype.getExpirationTime() - System.currentTimeMillis();
+                if (remaining <= 1800000) {
+                    try {
+                        Thread.sleep(Math.max(remaining / 2, 1000));
+                    } catch (InterruptedException ignored) {
+                    }
+                }
             }
         }
     }
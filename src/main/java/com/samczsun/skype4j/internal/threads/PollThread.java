@@ -20,82 +20,84 @@ import com.eclipsesource.json.JsonValue;
 import com.samczsun.skype4j.exceptions.ConnectionException;
 import com.samczsun.skype4j.exceptions.handler.ErrorSource;
 import com.samczsun.skype4j.internal.Endpoints;
-import com.samczsun.skype4j.internal.EventType;
 import com.samczsun.skype4j.internal.ExceptionHandler;
 import com.samczsun.skype4j.internal.SkypeImpl;
-import com.samczsun.skype4j.internal.SkypeThreadFactory;
+import com.samczsun.skype4j.internal.StreamUtils;
 import com.samczsun.skype4j.internal.Utils;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 public class PollThread extends Thread {
+    private static final long INITIAL_BACKOFF = TimeUnit.SECONDS.toMillis(1);
+    private static final long MAX_BACKOFF = TimeUnit.MINUTES.toMillis(1);
+
     private final SkypeImpl skype;
-    private final ExecutorService inputFetcher;
     private final String endpointId;
-    private final Object lock = new Object();
 
-    private IOException pendingException;
-    private HttpURLConnection connection;
+    private volatile boolean stopped;
+    private volatile HttpURLConnection connection;
+    // Starts out false so events missed while resubscribing are loaded as well
+    private boolean caughtUp;
+    // How long to wait before polling again after a failed poll, doubled on every failure in a row
+    private long backoff = INITIAL_BACKOFF;
 
     public PollThread(SkypeImpl skype, String endpointId) {
         super(String.format("Skype4J-Poller-%s", skype.getUsername()));
         this.skype = skype;
-        this.inputFetcher = Executors.newSingleThreadExecutor(new SkypeThreadFactory(skype, "PollBlocker"));
         this.endpointId = endpointId;
     }
 
     public void run() {
         int pollId = 0;
-        while (skype.isAuthenticated()) {
+        while (skype.isAuthenticated() && !stopped) {
             final Endpoints.EndpointConnection<HttpURLConnection> epconn = Endpoints.POLL
                     .open(skype, pollId)
                     .header("Content-Type", "application/json")
+                    .header("Accept-Encoding", StreamUtils.ACCEPT_ENCODING)
                     .dontConnect()
                     .dontTimeout();
-            final AtomicBoolean complete = new AtomicBoolean(false);
-            while (skype.isAuthenticated()) {
+            while (skype.isAuthenticated() && !stopped) {
+                HttpURLConnection connection = null;
                 try {
-                    complete.set(false);
-                    connection = epconn.post();
-                    inputFetcher.execute(() -> {
-                        try {
-                            connection.getResponseCode();
-                        } catch (IOException e) {
-                            pendingException = e;
-                        } finally {
-                            complete.set(true);
-                            synchronized (lock) {
-                                lock.notify();
-                            }
-                        }
-                    });
-
-                    synchronized (lock) {
-                        if (!complete.get()) {
-                            lock.wait();
-                        }
+                    connection = this.connection = epconn.post();
+                    if (stopped) {
+                        return;
                     }
 
-                    if (pendingException != null) {
-                        skype.handleError(ErrorSource.POLLING_SKYPE, pendingException, false);
-                        pendingException = null;
+                    int code;
+                    try {
+                        // Blocks for the whole long poll. shutdown() disconnects the connection to end it early
+                        code = connection.getResponseCode();
+                    } catch (IOException e) {
+                        if (stopped) {
+                            return;
+                        }
+                        skype.handleError(ErrorSource.POLLING_SKYPE, e, false);
+                        caughtUp = false;
+                        backoff();
                         continue;
+                    } catch (RuntimeException e) {
+                        // HttpURLConnection fails this way when shutdown() disconnects it halfway through the request
+                        if (stopped) {
+                            return;
+                        }
+                        throw e;
                     }
 
                     if (connection.getHeaderField("Set-RegistrationToken") != null) {
                         skype.setRegistrationToken(connection.getHeaderField("Set-RegistrationToken"));
                     }
 
-                    if (connection.getResponseCode() == 403) {
+                    if (code == 403) {
                         try {
                             HttpURLConnection conn = Endpoints
                                     .custom("https://client-s.gateway.messenger.live.com/v1/users/ME/endpoints/" + endpointId,
                                             skype)
                                     .dontConnect()
+                                    .header("Accept-Encoding", StreamUtils.ACCEPT_ENCODING)
                                     .header("Authentication", "skypetoken=" + skype.getSkypeToken())
                                     .put(new JsonObject());
                             if (conn.getResponseCode() != 200) {
@@ -107,10 +109,11 @@ public class PollThread extends Thread {
                             if (regtoken != null) {
                                 skype.setRegistrationToken(regtoken);
                             }
-                            JsonObject object = Utils.parseJsonObject(conn.getInputStream());
+                            JsonObject object = Utils.parseJsonObject(StreamUtils.getInputStream(conn));
                             if (object.get("subscriptions") != null) {
                                 pollId = object.get("subscriptions").asArray().get(0).asObject().get("id").asInt();
                             }
+                            caughtUp = false;
                             break;
                         } catch (IOException e) {
                             skype.handleError(ErrorSource.REFRESHING_ENDPOINT, e, true);
@@ -118,9 +121,11 @@ public class PollThread extends Thread {
                         }
                     }
 
-                    if (connection.getResponseCode() != 200) {
+                    if (code != 200) {
+                        backoff();
                         continue;
                     }
+                    backoff = INITIAL_BACKOFF;
 
                     if (skype.getScheduler().isShutdown()) {
                         if (!skype.isShutdownRequested()) {
@@ -129,53 +134,59 @@ public class PollThread extends Thread {
                         return;
                     }
 
-                    final JsonObject message = Utils.parseJsonObject(connection.getInputStream());
-                    skype.getScheduler().execute(() -> {
-                        if (message.get("eventMessages") != null) {
-                            for (JsonValue elem : message.get("eventMessages").asArray()) {
-                                JsonObject eventObj = elem.asObject();
-
-                                EventType type = EventType.getByName(eventObj.get("resourceType").asString());
-                                if (type != null) {
-                                    try {
-                                        type.handle(skype, eventObj);
-                                    } catch (Throwable t) {
-                                        skype.handleError(ErrorSource.PARSING_MESSAGE, t, false);
-                                    }
-                                } else {
-                                    skype.handleError(ErrorSource.NO_MESSAGE_TYPE, null, false);
-                                }
-                            }
+                    final JsonObject message = Utils.parseJsonObject(StreamUtils.getInputStream(connection));
+                    if (!caughtUp) {
+                        // Queue what was missed before the events of this poll, so they are handled in order
+                        skype.backfill();
+                        caughtUp = true;
+                    }
+                    if (message.get("eventMessages") != null) {
+                        for (JsonValue elem : message.get("eventMessages").asArray()) {
+                            // Blocks, drops or spills once too many events are waiting, depending on the policy
+                            skype.getEventQueue().offer(elem.asObject());
                         }
-                    });
+                    }
+                    skype.getMessageTracker().polled();
+                } catch (RejectedExecutionException e) {
+                    if (!skype.isShutdownRequested()) {
+                        skype.handleError(ErrorSource.THREAD_POOL_DEAD, e, true);
+                    }
+                    return;
                 } catch (InterruptedException e) {
                     return;
                 } catch (IOException | ConnectionException e) {
+                    if (stopped) {
+                        return;
+                    }
                     skype.handleError(ErrorSource.POLLING_SKYPE, e, true);
                     return;
                 } finally {
-                    connection.disconnect();
+                    this.connection = null;
+                    if (connection != null) {
+                        connection.disconnect();
+                    }
                 }
             }
         }
-        
-        skype.shutdown();
+
+        if (!stopped) {
+            skype.shutdown();
+        }
+    }
+
+    private void backoff() throws InterruptedException {
+        Thread.sleep(backoff);
+        backoff = Math.min(backoff * 2, MAX_BACKOFF);
     }
 
     public void shutdown() {
+        this.stopped = true;
         this.interrupt();
-        while (this.getState() != State.TERMINATED) {
-            try {
-                Thread.sleep(500);
-            } catch (InterruptedException ex) {
-                return;
-            }
+        HttpURLConnection connection = this.connection;
+        if (connection != null) {
+            connection.disconnect();
         }
-        if (this.connection != null) {
-            this.connection.disconnect();
-        }
-        this.inputFetcher.shutdownNow();
-        while (!this.inputFetcher.isTerminated()) {
+        while (this.getState() != State.TERMINATED) {
             try {
                 Thread.sleep(500);
             } catch (InterruptedException ex) {
@@ -47,7 +47,7 @@ public class TypingThread extends Thread {
             obj.add("content", chat.getClient().getUsername() + " is typing");
             obj.add("messagetype", "Control/Typing");
             obj.add("contenttype", "text");
-            obj.add("clientmessageid", String.valueOf(System.currentTimeMillis()));
+            obj.add("clientmessageid", chat.getClient().nextClientMessageId());
 
             try {
                 Endpoints.SEND_MESSAGE_URL.open(chat.getClient(), chat.getIdentity())
@@ -84,7 +84,7 @@ public class TypingThread extends Thread {
             obj.add("content", chat.getClient().getUsername() + " is done typing");
             obj.add("messagetype", "Control/ClearTyping");
             obj.add("contenttype", "text");
-            obj.add("clientmessageid", String.valueOf(System.currentTimeMillis()));
+            obj.add("clientmessageid", chat.getClient().nextClientMessageId());
 
             try {
                 Endpoints.SEND_MESSAGE_URL.open(chat.getClient(), chat.getIdentity())
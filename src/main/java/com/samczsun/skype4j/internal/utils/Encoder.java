@@ -16,21 +16,47 @@
 
 package com.samczsun.skype4j.internal.utils;
 
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
+/**
+ * Encodes strings exactly as {@link java.net.URLEncoder} does with UTF-8, without creating an encoder or caching
+ * results. Strings which need no encoding are returned as is
+ */
 public class Encoder {
-    private static final Map<String, String> encoded = new HashMap<>();
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final boolean[] SAFE = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) SAFE[c] = true;
+        for (char c = 'A'; c <= 'Z'; c++) SAFE[c] = true;
+        for (char c = '0'; c <= '9'; c++) SAFE[c] = true;
+        SAFE['.'] = SAFE['-'] = SAFE['*'] = SAFE['_'] = true;
+    }
 
     public static String encode(String in) {
-        try {
-            if (!encoded.containsKey(in)) encoded.put(in, URLEncoder.encode(in, "UTF-8"));
-            return encoded.get(in);
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException(e);
+        int i = 0;
+        while (i < in.length() && isSafe(in.charAt(i))) i++;
+        if (i == in.length()) return in;
+
+        StringBuilder result = new StringBuilder(in.length() + 16).append(in, 0, i);
+        while (i < in.length()) {
+            char c = in.charAt(i);
+            if (isSafe(c)) {
+                result.append(c);
+                i++;
+            } else if (c == ' ') {
+                result.append('+');
+                i++;
+            } else {
+                int start = i;
+                while (i < in.length() && !isSafe(in.charAt(i)) && in.charAt(i) != ' ') i++;
+                for (byte b : in.substring(start, i).getBytes(StandardCharsets.UTF_8)) {
+                    result.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+                }
+            }
         }
+        return result.toString();
     }
 
     public static String encode(Map<String, String> data) {
@@ -40,4 +66,8 @@ public class Encoder {
         }
         return result.toString();
     }
+
+    private static boolean isSafe(char c) {
+        return c < 128 && SAFE[c];
+    }
 }
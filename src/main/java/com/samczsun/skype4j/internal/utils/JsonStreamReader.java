@@ -0,0 +1,237 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.internal.utils;
+
+import com.eclipsesource.json.JsonValue;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A pull-style JSON reader. Containers are walked token by token, and only the values which are explicitly requested
+ * through {@link #nextValue()} are materialized, one at a time. This allows large arrays to be turned into domain
+ * objects element by element without holding the whole document in memory.
+ */
+public class JsonStreamReader implements Closeable {
+    private static final int NONE = -2;
+
+    private final Reader reader;
+    private final StringBuilder buffer = new StringBuilder();
+    private int peeked = NONE;
+
+    public JsonStreamReader(InputStream in) {
+        this(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+    }
+
+    public JsonStreamReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    public void beginObject() throws IOException {
+        expect('{');
+    }
+
+    public void endObject() throws IOException {
+        expect('}');
+    }
+
+    public void beginArray() throws IOException {
+        expect('[');
+    }
+
+    public void endArray() throws IOException {
+        expect(']');
+    }
+
+    /**
+     * Consume whatever follows the top-level value up to the end of the input, which must only be whitespace. Call
+     * this after the last {@link #endObject()} or {@link #endArray()} when the underlying stream has to be read to
+     * its end, such as a response whose validators are only cached once the whole body was seen
+     */
+    public void endDocument() throws IOException {
+        int c = peekNonWhitespace();
+        if (c != -1) {
+            throw new IOException(String.format("Expected end of input but found '%s'", (char) c));
+        }
+    }
+
+    /**
+     * @return Whether the current object or array has another member or element
+     */
+    public boolean hasNext() throws IOException {
+        int c = peekNonWhitespace();
+        if (c == ',') {
+            read();
+            c = peekNonWhitespace();
+        }
+        if (c == -1) {
+            throw new EOFException("Unexpected end of input");
+        }
+        return c != '}' && c != ']';
+    }
+
+    public String nextName() throws IOException {
+        skipSeparator();
+        expect('"');
+        buffer.setLength(0);
+        readString(buffer);
+        expect(':');
+        if (buffer.indexOf("\\") != -1) {
+            return JsonValue.readFrom("\"" + buffer + "\"").asString();
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Read the next value, including any nested containers, into a {@link JsonValue}
+     */
+    public JsonValue nextValue() throws IOException {
+        skipSeparator();
+        buffer.setLength(0);
+        readValue(buffer);
+        return JsonValue.readFrom(buffer.toString());
+    }
+
+    public void skipValue() throws IOException {
+        skipSeparator();
+        readValue(null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void skipSeparator() throws IOException {
+        if (peekNonWhitespace() == ',') {
+            read();
+        }
+    }
+
+    private void readValue(StringBuilder out) throws IOException {
+        int c = peekNonWhitespace();
+        if (c == '"') {
+            read();
+            append(out, '"');
+            readString(out);
+            append(out, '"');
+        } else if (c == '{' || c == '[') {
+            readContainer(out);
+        } else if (c == -1) {
+            throw new EOFException("Unexpected end of input");
+        } else {
+            while (true) {
+                c = peek();
+                if (c == -1 || c == ',' || c == '}' || c == ']' || Character.isWhitespace(c)) {
+                    break;
+                }
+                append(out, (char) read());
+            }
+        }
+    }
+
+    private void readContainer(StringBuilder out) throws IOException {
+        int depth = 0;
+        do {
+            int c = read();
+            if (c == -1) {
+                throw new EOFException("Unexpected end of input");
+            }
+            append(out, (char) c);
+            if (c == '"') {
+                readString(out);
+                append(out, '"');
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Read the remainder of a string whose opening quote has been consumed. The closing quote is consumed but not
+     * appended, and escape sequences are kept as-is
+     */
+    private void readString(StringBuilder out) throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new EOFException("Unterminated string");
+            }
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                int escaped = read();
+                if (escaped == -1) {
+                    throw new EOFException("Unterminated string");
+                }
+                append(out, '\\');
+                append(out, (char) escaped);
+            } else {
+                append(out, (char) c);
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = peekNonWhitespace();
+        if (c != expected) {
+            throw new IOException(String.format("Expected '%s' but found %s", expected, c == -1 ? "end of input" : "'" + (char) c + "'"));
+        }
+        read();
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        int c = peek();
+        while (c != -1 && Character.isWhitespace(c)) {
+            read();
+            c = peek();
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (peeked == NONE) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+
+    private int read() throws IOException {
+        if (peeked != NONE) {
+            int c = peeked;
+            peeked = NONE;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private static void append(StringBuilder out, char c) {
+        if (out != null) {
+            out.append(c);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.internal.utils;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs tasks on a shared pool while keeping the tasks submitted under the same key in order. Keys are hashed onto a
+ * fixed amount of serial queues, so tasks with different keys usually run in parallel, and a slow task only holds up
+ * the keys which share its queue
+ */
+public class StripedExecutor {
+    private static final int BATCH_SIZE = 64;
+
+    private final ExecutorService pool;
+    private final Stripe[] stripes;
+
+    /**
+     * @param pool    The pool which runs the tasks. It is shut down with this executor
+     * @param stripes The amount of serial queues
+     */
+    public StripedExecutor(ExecutorService pool, int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Need at least one stripe");
+        }
+        this.pool = pool;
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Run the task after every task previously submitted with the same key has completed
+     *
+     * @param key  The key to order by, or null to use a shared default queue
+     * @param task The task to run
+     * @throws RejectedExecutionException If this executor has been shut down
+     */
+    public void execute(Object key, Runnable task) {
+        if (pool.isShutdown()) {
+            throw new RejectedExecutionException("Executor has been shut down");
+        }
+        int hash = key == null ? 0 : key.hashCode();
+        hash ^= hash >>> 16;
+        stripes[(hash & Integer.MAX_VALUE) % stripes.length].add(task);
+    }
+
+    public boolean isShutdown() {
+        return pool.isShutdown();
+    }
+
+    public boolean isTerminated() {
+        return pool.isTerminated();
+    }
+
+    public void shutdownNow() {
+        pool.shutdownNow();
+        for (Stripe stripe : stripes) {
+            stripe.tasks.clear();
+        }
+    }
+
+    private class Stripe implements Runnable {
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private void add(Runnable task) {
+            tasks.add(task);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    pool.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    throw e;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                // Run a bounded batch so one busy queue cannot hold a thread forever while others wait
+                for (int i = 0; i < BATCH_SIZE && !Thread.currentThread().isInterrupted(); i++) {
+                    Runnable task = tasks.poll();
+                    if (task == null) {
+                        break;
+                    }
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        Thread current = Thread.currentThread();
+                        current.getUncaughtExceptionHandler().uncaughtException(current, e);
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                if (!tasks.isEmpty() && !pool.isShutdown()) {
+                    try {
+                        schedule();
+                    } catch (RejectedExecutionException ignored) {
+                    }
+                }
+            }
+        }
+    }
+}
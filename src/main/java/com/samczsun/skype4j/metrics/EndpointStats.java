@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The measurements of a single endpoint. All latencies are in nanoseconds
+ */
+public class EndpointStats {
+    private final String endpoint;
+    private final long requests;
+    private final long failures;
+    private final Map<Integer, Long> statuses;
+    private final long bytesIn;
+    private final long bytesOut;
+    private final Histogram latency;
+    private final Histogram firstByte;
+
+    public EndpointStats(String endpoint, long requests, long failures, Map<Integer, Long> statuses, long bytesIn, long bytesOut, Histogram latency, Histogram firstByte) {
+        this.endpoint = endpoint;
+        this.requests = requests;
+        this.failures = failures;
+        this.statuses = Collections.unmodifiableMap(statuses);
+        this.bytesIn = bytesIn;
+        this.bytesOut = bytesOut;
+        this.latency = latency;
+        this.firstByte = firstByte;
+    }
+
+    public String getEndpoint() {
+        return this.endpoint;
+    }
+
+    /**
+     * @return The amount of requests which received a response
+     */
+    public long getRequests() {
+        return this.requests;
+    }
+
+    /**
+     * @return The amount of requests which failed without a response
+     */
+    public long getFailures() {
+        return this.failures;
+    }
+
+    /**
+     * @return The amount of responses per response code
+     */
+    public Map<Integer, Long> getStatuses() {
+        return this.statuses;
+    }
+
+    /**
+     * @return The total amount of response body bytes read, as sent by the server before decompression
+     */
+    public long getBytesIn() {
+        return this.bytesIn;
+    }
+
+    /**
+     * @return The total size of the request bodies
+     */
+    public long getBytesOut() {
+        return this.bytesOut;
+    }
+
+    /**
+     * @return The distribution of the total time taken by each request
+     */
+    public Histogram getLatency() {
+        return this.latency;
+    }
+
+    /**
+     * @return The distribution of the time taken until the response headers were received
+     */
+    public Histogram getFirstByte() {
+        return this.firstByte;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d requests, %d failures, p50 %dms, p99 %dms, ttfb p99 %dms, %d bytes in, %d bytes out",
+                endpoint, requests, failures, TimeUnit.NANOSECONDS.toMillis(latency.getPercentile(50)),
+                TimeUnit.NANOSECONDS.toMillis(latency.getPercentile(99)),
+                TimeUnit.NANOSECONDS.toMillis(firstByte.getPercentile(99)), bytesIn, bytesOut);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.metrics;
+
+import java.util.Arrays;
+
+/**
+ * An immutable latency distribution with logarithmic buckets, four per power of two, so percentiles are accurate to
+ * within roughly 19%
+ */
+public class Histogram {
+    static final int SUB_BUCKETS = 4;
+    static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    Histogram(long[] counts, long sum, long max) {
+        this.counts = counts;
+        long count = 0;
+        for (long c : counts) {
+            count += c;
+        }
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(value, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int fraction = (int) ((value >>> (exponent - 2)) & (SUB_BUCKETS - 1));
+        return Math.min(exponent * SUB_BUCKETS + fraction, BUCKETS - 1);
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS;
+        int fraction = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + fraction + 1) << (exponent - 2)) - 1;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    public long getMax() {
+        return this.max;
+    }
+
+    public long getMean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * @param percentile The percentile, between 0 and 100
+     * @return The upper bound of the bucket containing the percentile, or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100 * count);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(rank, 1)) {
+                return Math.min(upperBoundOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "Histogram{count=" + count + ", mean=" + getMean() + ", max=" + max + ", counts=" + Arrays.toString(counts) + "}";
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * The default registry, which keeps running totals and histograms of every endpoint in memory
+ */
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordRequest(String endpoint, String method, int status, long bytesOut, long bytesIn, long firstByteNanos, long totalNanos) {
+        recorders.computeIfAbsent(endpoint, Recorder::new).request(status, bytesOut, bytesIn, firstByteNanos, totalNanos);
+    }
+
+    @Override
+    public void recordFailure(String endpoint, String method, Throwable cause, long totalNanos) {
+        recorders.computeIfAbsent(endpoint, Recorder::new).failure(totalNanos);
+    }
+
+    @Override
+    public void recordBytesIn(String endpoint, long bytesIn) {
+        recorders.computeIfAbsent(endpoint, Recorder::new).bytesIn(bytesIn);
+    }
+
+    @Override
+    public void registerGauge(String name, LongSupplier gauge) {
+        gauges.put(name, gauge);
+    }
+
+    @Override
+    public MetricsSnapshot snapshot() {
+        Map<String, EndpointStats> stats = new HashMap<>();
+        for (Recorder recorder : recorders.values()) {
+            stats.put(recorder.endpoint, recorder.snapshot());
+        }
+        Map<String, Long> values = new HashMap<>();
+        for (Map.Entry<String, LongSupplier> gauge : gauges.entrySet()) {
+            values.put(gauge.getKey(), gauge.getValue().getAsLong());
+        }
+        return new MetricsSnapshot(System.currentTimeMillis(), stats, values);
+    }
+
+    /**
+     * Forget everything recorded so far. Gauges stay registered
+     */
+    public void reset() {
+        recorders.clear();
+    }
+
+    private static class Recorder {
+        private final String endpoint;
+        private final Map<Integer, Long> statuses = new HashMap<>();
+        private final long[] latency = new long[Histogram.BUCKETS];
+        private final long[] firstByte = new long[Histogram.BUCKETS];
+        private long requests;
+        private long failures;
+        private long bytesIn;
+        private long bytesOut;
+        private long latencySum;
+        private long latencyMax;
+        private long firstByteSum;
+        private long firstByteMax;
+
+        private Recorder(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        synchronized void request(int status, long bytesOut, long bytesIn, long firstByteNanos, long totalNanos) {
+            requests++;
+            statuses.merge(status, 1L, Long::sum);
+            this.bytesOut += Math.max(bytesOut, 0);
+            this.bytesIn += Math.max(bytesIn, 0);
+            firstByte[Histogram.bucketOf(firstByteNanos)]++;
+            firstByteSum += firstByteNanos;
+            firstByteMax = Math.max(firstByteMax, firstByteNanos);
+            latency(totalNanos);
+        }
+
+        synchronized void bytesIn(long bytesIn) {
+            this.bytesIn += Math.max(bytesIn, 0);
+        }
+
+        synchronized void failure(long totalNanos) {
+            failures++;
+            latency(totalNanos);
+        }
+
+        private void latency(long totalNanos) {
+            latency[Histogram.bucketOf(totalNanos)]++;
+            latencySum += totalNanos;
+            latencyMax = Math.max(latencyMax, totalNanos);
+        }
+
+        synchronized EndpointStats snapshot() {
+            return new EndpointStats(endpoint, requests, failures, new HashMap<>(statuses), bytesIn, bytesOut,
+                    new Histogram(latency.clone(), latencySum, latencyMax),
+                    new Histogram(firstByte.clone(), firstByteSum, firstByteMax));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Receives measurements of every request sent to an endpoint. Implementations must be thread safe, and should return
+ * quickly as they are called on the requesting thread
+ */
+public interface MetricsRegistry {
+    /**
+     * Record a request which received a response
+     *
+     * @param endpoint        The name of the endpoint, such as {@code CHAT_INFO_URL} or {@code custom:host}
+     * @param method          The HTTP method
+     * @param status          The response code
+     * @param bytesOut        The size of the request body
+     * @param bytesIn         The amount of response body bytes read by the time the response was handled, as sent by
+     *                        the server before decompression
+     * @param firstByteNanos  The time between opening the connection and receiving the response headers
+     * @param totalNanos      The time between opening the connection and the response being handled
+     */
+    void recordRequest(String endpoint, String method, int status, long bytesOut, long bytesIn, long firstByteNanos, long totalNanos);
+
+    /**
+     * Record a request which failed before a response was received
+     *
+     * @param endpoint   The name of the endpoint
+     * @param method     The HTTP method
+     * @param cause      The reason the request failed
+     * @param totalNanos The time between opening the connection and the failure
+     */
+    void recordFailure(String endpoint, String method, Throwable cause, long totalNanos);
+
+    /**
+     * Record response body bytes which were read after the request was recorded, such as the rest of a response which
+     * is streamed to the caller
+     *
+     * @param endpoint The name of the endpoint
+     * @param bytesIn  The amount of bytes read since the request was recorded
+     */
+    default void recordBytesIn(String endpoint, long bytesIn) {
+    }
+
+    /**
+     * Register a value which is read whenever a snapshot is taken, such as the amount of events waiting to be
+     * handled. Registering another gauge with the same name replaces it
+     *
+     * @param name  The name of the gauge, such as {@code events.queued}
+     * @param gauge Supplies the current value
+     */
+    default void registerGauge(String name, LongSupplier gauge) {
+    }
+
+    /**
+     * @return The measurements recorded so far
+     */
+    MetricsSnapshot snapshot();
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * An immutable view of the measurements of every endpoint at a point in time
+ */
+public class MetricsSnapshot {
+    private final long timestamp;
+    private final Map<String, EndpointStats> endpoints;
+    private final Map<String, Long> gauges;
+
+    public MetricsSnapshot(long timestamp, Map<String, EndpointStats> endpoints) {
+        this(timestamp, endpoints, Collections.emptyMap());
+    }
+
+    public MetricsSnapshot(long timestamp, Map<String, EndpointStats> endpoints, Map<String, Long> gauges) {
+        this.timestamp = timestamp;
+        this.endpoints = Collections.unmodifiableMap(endpoints);
+        this.gauges = Collections.unmodifiableMap(gauges);
+    }
+
+    /**
+     * @return The time the snapshot was taken, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * @return The measurements of each endpoint, keyed by endpoint name
+     */
+    public Map<String, EndpointStats> getEndpoints() {
+        return this.endpoints;
+    }
+
+    /**
+     * @param endpoint The name of the endpoint
+     * @return The measurements of the endpoint, or null if no requests were made to it
+     */
+    public EndpointStats getEndpoint(String endpoint) {
+        return this.endpoints.get(endpoint);
+    }
+
+    /**
+     * @return The value of each registered gauge when the snapshot was taken, keyed by gauge name
+     */
+    public Map<String, Long> getGauges() {
+        return this.gauges;
+    }
+
+    /**
+     * @param name The name of the gauge
+     * @return The value of the gauge, or -1 if no such gauge is registered
+     */
+    public long getGauge(String name) {
+        Long value = this.gauges.get(name);
+        return value == null ? -1 : value;
+    }
+}
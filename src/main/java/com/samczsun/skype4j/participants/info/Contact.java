@@ -22,6 +22,7 @@ import com.samczsun.skype4j.exceptions.ConnectionException;
 import com.samczsun.skype4j.exceptions.NoSuchContactException;
 
 import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
 import java.util.Date;
 
 /**
@@ -69,14 +70,22 @@ public interface Contact {
     void setIsBlocked(boolean blocked);
     /**
      * Get the avatar as a {@link BufferedImage}. Can return null if not found.
-     * Once the image is loaded it is cached
-     * so if the first call suceeds it is implied no more exceptions will be thrown
+     * The encoded image is cached, and decoded again on every call
      *
-     * @return A clone of the original BufferedImage
-     * @throws ConnectionException If an error occurs while fetching the original image
+     * @return A new BufferedImage which the caller may modify
+     * @throws ConnectionException If an error occurs while fetching or decoding the image
      */
     BufferedImage getAvatarPicture() throws ConnectionException;
 
+    /**
+     * Get the encoded avatar, as served by Skype. Can return null if not found.
+     * The encoded image is cached until the avatar changes
+     *
+     * @return A read-only view of the encoded image
+     * @throws ConnectionException If an error occurs while fetching the image
+     */
+    ByteBuffer getAvatarData() throws ConnectionException;
+
     /**
      * Get the avatar as a URL. Can return null if not found.
      *
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.transport;
+
+/**
+ * Groups endpoints by the backend which serves them, so that throttling by one backend does not affect the others
+ */
+public enum EndpointFamily {
+    /**
+     * The chat gateway at {@code client-s.gateway.messenger.live.com}
+     */
+    MESSAGING,
+    /**
+     * Contacts, profiles and contact requests at {@code api.skype.com} and {@code contacts.skype.com}
+     */
+    CONTACTS,
+    /**
+     * Media uploads and downloads at {@code *.asm.skype.com}
+     */
+    MEDIA,
+    /**
+     * Everything else, such as login and trouter
+     */
+    OTHER;
+
+    /**
+     * Get the family of an endpoint given the host it is served from
+     *
+     * @param host The host, possibly still containing a cloud placeholder
+     * @return The family
+     */
+    public static EndpointFamily forHost(String host) {
+        if (host.endsWith("client-s.gateway.messenger.live.com")) {
+            return MESSAGING;
+        } else if (host.endsWith(".asm.skype.com")) {
+            return MEDIA;
+        } else if (host.equals("api.skype.com") || host.equals("contacts.skype.com")) {
+            return CONTACTS;
+        }
+        return OTHER;
+    }
+
+    /**
+     * Get the family of an endpoint given its URL
+     *
+     * @param url The URL, possibly still containing placeholders
+     * @return The family
+     */
+    public static EndpointFamily forUrl(String url) {
+        int start = url.indexOf("://");
+        start = start == -1 ? 0 : start + 3;
+        int end = url.indexOf('/', start);
+        String host = end == -1 ? url.substring(start) : url.substring(start, end);
+        int port = host.lastIndexOf(':');
+        return forHost(port == -1 ? host : host.substring(0, port));
+    }
+}
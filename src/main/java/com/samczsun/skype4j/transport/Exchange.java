@@ -0,0 +1,188 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.transport;
+
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A recorded request and the response it received, as written by {@link RecordingTransport} and read by
+ * {@link ReplayTransport} and {@link StandInGateway}
+ */
+public class Exchange {
+    private final String method;
+    private final String url;
+    private final Map<String, List<String>> requestHeaders;
+    private final byte[] requestBody;
+    private final int status;
+    private final String message;
+    private final Map<String, List<String>> responseHeaders;
+    private final byte[] responseBody;
+
+    public Exchange(String method, String url, Map<String, List<String>> requestHeaders, byte[] requestBody, int status, String message, Map<String, List<String>> responseHeaders, byte[] responseBody) {
+        this.method = method;
+        this.url = url;
+        this.requestHeaders = Collections.unmodifiableMap(requestHeaders);
+        this.requestBody = requestBody;
+        this.status = status;
+        this.message = message;
+        this.responseHeaders = Collections.unmodifiableMap(responseHeaders);
+        this.responseBody = responseBody;
+    }
+
+    public String getMethod() {
+        return this.method;
+    }
+
+    public String getUrl() {
+        return this.url;
+    }
+
+    public Map<String, List<String>> getRequestHeaders() {
+        return this.requestHeaders;
+    }
+
+    public byte[] getRequestBody() {
+        return this.requestBody;
+    }
+
+    public int getStatus() {
+        return this.status;
+    }
+
+    public String getMessage() {
+        return this.message;
+    }
+
+    public Map<String, List<String>> getResponseHeaders() {
+        return this.responseHeaders;
+    }
+
+    public byte[] getResponseBody() {
+        return this.responseBody;
+    }
+
+    /**
+     * Get the first value of a response header, ignoring case
+     *
+     * @param name The name of the header
+     * @return The value, or null if not present
+     */
+    public String getResponseHeader(String name) {
+        for (Map.Entry<String, List<String>> header : responseHeaders.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                return header.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    public JsonObject toJson() {
+        return new JsonObject()
+                .add("method", method)
+                .add("url", url)
+                .add("requestHeaders", headersToJson(requestHeaders))
+                .add("requestBody", Base64.getEncoder().encodeToString(requestBody))
+                .add("status", status)
+                .add("message", message == null ? JsonValue.NULL : JsonValue.valueOf(message))
+                .add("responseHeaders", headersToJson(responseHeaders))
+                .add("responseBody", Base64.getEncoder().encodeToString(responseBody));
+    }
+
+    public static Exchange fromJson(JsonObject object) {
+        JsonValue message = object.get("message");
+        return new Exchange(object.get("method").asString(), object.get("url").asString(),
+                headersFromJson(object.get("requestHeaders").asObject()),
+                Base64.getDecoder().decode(object.get("requestBody").asString()),
+                object.get("status").asInt(), message == null || message.isNull() ? null : message.asString(),
+                headersFromJson(object.get("responseHeaders").asObject()),
+                Base64.getDecoder().decode(object.get("responseBody").asString()));
+    }
+
+    public void write(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            toJson().writeTo(writer);
+        }
+    }
+
+    public static Exchange read(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return fromJson(JsonObject.readFrom(reader));
+        }
+    }
+
+    /**
+     * Read every exchange in a directory written by {@link RecordingTransport}, in the order they were recorded
+     *
+     * @param directory The directory
+     * @return The exchanges
+     * @throws IOException If a recording could not be read
+     */
+    public static List<Exchange> readAll(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.json")) {
+            stream.forEach(files::add);
+        }
+        Collections.sort(files);
+        List<Exchange> exchanges = new ArrayList<>();
+        for (Path file : files) {
+            exchanges.add(read(file));
+        }
+        return exchanges;
+    }
+
+    private static JsonObject headersToJson(Map<String, List<String>> headers) {
+        JsonObject object = new JsonObject();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey() == null) {
+                continue;
+            }
+            JsonArray values = new JsonArray();
+            header.getValue().forEach(values::add);
+            object.add(header.getKey(), values);
+        }
+        return object;
+    }
+
+    private static Map<String, List<String>> headersFromJson(JsonObject object) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (JsonObject.Member member : object) {
+            List<String> values = new ArrayList<>();
+            for (JsonValue value : member.getValue().asArray()) {
+                values.add(value.asString());
+            }
+            headers.put(member.getName(), values);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * The default {@link Transport}. Instead of disconnecting after every request, the remainder of the response is
+ * drained and the stream is closed, which hands the socket back to the JDK keep-alive cache. The cache keeps a
+ * separate pool of idle connections per host, so TCP and TLS setup is only paid once per connection instead of once
+ * per request. Connections which never received a response are disconnected rather than drained, since reading from
+ * them would send the request again.
+ *
+ * The amount of idle connections kept per host is controlled by the {@code http.maxConnections} system property
+ */
+public class KeepAliveTransport implements Transport {
+    private static final int DEFAULT_MAX_DRAIN = 64 * 1024;
+
+    private final int maxDrain;
+
+    public KeepAliveTransport() {
+        this(DEFAULT_MAX_DRAIN);
+    }
+
+    /**
+     * @param maxDrain The maximum amount of unread bytes to skip over in order to reuse a connection.
+     *                 Connections with more left over than this are closed instead
+     */
+    public KeepAliveTransport(int maxDrain) {
+        this.maxDrain = maxDrain;
+    }
+
+    @Override
+    public HttpURLConnection open(URL url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestProperty("Connection", "keep-alive");
+        return connection;
+    }
+
+    @Override
+    public void release(HttpURLConnection connection) {
+        InputStream in = null;
+        try {
+            try {
+                in = connection.getInputStream();
+            } catch (IOException e) {
+                in = connection.getErrorStream();
+            }
+            if (in != null && !drain(in)) {
+                connection.disconnect();
+            }
+        } catch (IOException e) {
+            connection.disconnect();
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private boolean drain(InputStream in) throws IOException {
+        byte[] buf = new byte[4096];
+        long total = 0;
+        int read;
+        while ((read = in.read(buf)) != -1) {
+            total += read;
+            if (total > maxDrain) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
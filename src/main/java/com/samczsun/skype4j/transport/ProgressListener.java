@@ -0,0 +1,32 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.transport;
+
+/**
+ * Receives progress updates while a request body is being sent or a response body is being read
+ */
+@FunctionalInterface
+public interface ProgressListener {
+    /**
+     * Called as data is transferred, and once more when the transfer completes
+     *
+     * @param transferred The amount of bytes transferred so far
+     * @param total       The total amount of bytes, or -1 if unknown
+     */
+    void onProgress(long transferred, long total);
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records every request and its response to a directory, one file per {@link Exchange}, so that a session can later
+ * be replayed with {@link ReplayTransport} or served by {@link StandInGateway}. Response bodies are buffered in memory
+ * in full, so this is meant for testing only. Note that recordings contain the tokens of the recorded session
+ */
+public class RecordingTransport implements Transport {
+    private static final Logger LOGGER = Logger.getLogger(RecordingTransport.class.getName());
+
+    private final Transport delegate;
+    private final Path directory;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    /**
+     * @param delegate  The transport which performs the actual requests
+     * @param directory The directory to write recordings to, created if needed
+     * @throws IOException If the directory could not be created
+     */
+    public RecordingTransport(Transport delegate, Path directory) throws IOException {
+        this.delegate = delegate;
+        this.directory = Files.createDirectories(directory);
+    }
+
+    @Override
+    public HttpURLConnection open(URL url) throws IOException {
+        return new RecordingConnection(url, delegate.open(url));
+    }
+
+    @Override
+    public void release(HttpURLConnection connection) {
+        if (connection instanceof RecordingConnection) {
+            RecordingConnection recording = (RecordingConnection) connection;
+            recording.complete();
+            delegate.release(recording.delegate);
+        } else {
+            delegate.release(connection);
+        }
+    }
+
+    @Override
+    public void release(HttpURLConnection connection, boolean responded) {
+        if (responded) {
+            release(connection);
+        } else if (connection instanceof RecordingConnection) {
+            // Nothing to record, and reading the response would send the request again
+            delegate.release(((RecordingConnection) connection).delegate, false);
+        } else {
+            delegate.release(connection, false);
+        }
+    }
+
+    @Override
+    public URL resolve(URL url) throws IOException {
+        return delegate.resolve(url);
+    }
+
+    private class RecordingConnection extends ForwardingConnection {
+        private final URL original;
+        private final ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+        private Map<String, List<String>> requestHeaders;
+        private byte[] responseBody;
+        private boolean error;
+        private boolean recorded;
+
+        private RecordingConnection(URL original, HttpURLConnection delegate) {
+            super(delegate);
+            this.original = original;
+        }
+
+        @Override
+        public void connect() throws IOException {
+            captureRequest();
+            super.connect();
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            captureRequest();
+            return new FilterOutputStream(delegate.getOutputStream()) {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    requestBody.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    requestBody.write(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public int getResponseCode() throws IOException {
+            captureRequest();
+            return delegate.getResponseCode();
+        }
+
+        @Override
+        public String getHeaderField(String name) {
+            captureRequest();
+            return delegate.getHeaderField(name);
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaderFields() {
+            captureRequest();
+            return delegate.getHeaderFields();
+        }
+
+        /**
+         * Request headers can only be read until the connection is made, so take a copy before anything connects
+         */
+        private void captureRequest() {
+            if (requestHeaders == null) {
+                requestHeaders = new LinkedHashMap<>(delegate.getRequestProperties());
+            }
+        }
+
+        @Override
+        public synchronized InputStream getInputStream() throws IOException {
+            buffer();
+            if (error) {
+                // Let the delegate throw the same exception it would have thrown without recording
+                return delegate.getInputStream();
+            }
+            return new ByteArrayInputStream(responseBody);
+        }
+
+        @Override
+        public synchronized InputStream getErrorStream() {
+            try {
+                buffer();
+            } catch (IOException e) {
+                return null;
+            }
+            return error ? new ByteArrayInputStream(responseBody) : null;
+        }
+
+        private void buffer() throws IOException {
+            if (responseBody != null) {
+                return;
+            }
+            getResponseCode();
+            InputStream in;
+            try {
+                in = delegate.getInputStream();
+            } catch (IOException e) {
+                in = delegate.getErrorStream();
+                error = true;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            if (in != null) {
+                try (InputStream closing = in) {
+                    byte[] buf = new byte[8192];
+                    int read;
+                    while ((read = closing.read(buf)) != -1) {
+                        out.write(buf, 0, read);
+                    }
+                }
+            }
+            responseBody = out.toByteArray();
+            complete();
+        }
+
+        private synchronized void complete() {
+            if (recorded) {
+                return;
+            }
+            try {
+                if (responseBody == null) {
+                    // Buffering completes the recording once the body has been read
+                    buffer();
+                    return;
+                }
+                recorded = true;
+                Exchange exchange = new Exchange(delegate.getRequestMethod(), original.toString(),
+                        requestHeaders == null ? Collections.emptyMap() : requestHeaders, requestBody.toByteArray(),
+                        delegate.getResponseCode(), delegate.getResponseMessage(), withoutStatusLine(delegate.getHeaderFields()),
+                        responseBody);
+                exchange.write(directory.resolve(String.format("%08d.json", counter.incrementAndGet())));
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Could not record request to " + original, e);
+            }
+        }
+
+        private Map<String, List<String>> withoutStatusLine(Map<String, List<String>> headers) {
+            Map<String, List<String>> result = new LinkedHashMap<>(headers);
+            result.remove(null);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers requests from recordings made by {@link RecordingTransport} without touching the network. Requests are
+ * matched on method and URL, falling back to method and path for URLs which contain per-session values. Responses
+ * to the same request are given in the order they were recorded, after which the last one is repeated
+ */
+public class ReplayTransport implements Transport {
+    private final Map<String, Replay> byUrl = new HashMap<>();
+    private final Map<String, Replay> byPath = new HashMap<>();
+
+    public ReplayTransport(Path directory) throws IOException {
+        this(Exchange.readAll(directory));
+    }
+
+    public ReplayTransport(List<Exchange> exchanges) throws IOException {
+        for (Exchange exchange : exchanges) {
+            URL url = new URL(exchange.getUrl());
+            byUrl.computeIfAbsent(exchange.getMethod() + " " + url, k -> new Replay()).add(exchange);
+            byPath.computeIfAbsent(exchange.getMethod() + " " + url.getHost() + url.getPath(), k -> new Replay()).add(exchange);
+        }
+    }
+
+    @Override
+    public HttpURLConnection open(URL url) throws IOException {
+        return new ReplayConnection(url, this);
+    }
+
+    @Override
+    public void release(HttpURLConnection connection) {
+    }
+
+    /**
+     * Find the recorded response to a request
+     *
+     * @param method The request method
+     * @param url    The request URL
+     * @return The recorded exchange, or null if nothing matching was recorded
+     */
+    public Exchange find(String method, URL url) {
+        Replay replay = byUrl.get(method + " " + url);
+        if (replay == null) {
+            replay = byPath.get(method + " " + url.getHost() + url.getPath());
+        }
+        return replay == null ? null : replay.next();
+    }
+
+    private static class Replay {
+        private final List<Exchange> exchanges = new ArrayList<>();
+        private int next;
+
+        void add(Exchange exchange) {
+            exchanges.add(exchange);
+        }
+
+        synchronized Exchange next() {
+            Exchange exchange = exchanges.get(Math.min(next, exchanges.size() - 1));
+            next++;
+            return exchange;
+        }
+    }
+
+    private static class ReplayConnection extends HttpURLConnection {
+        private final ReplayTransport transport;
+        private final Map<String, List<String>> requestProperties = new LinkedHashMap<>();
+        private final ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+        private Exchange exchange;
+        private List<String> headerKeys;
+
+        private ReplayConnection(URL url, ReplayTransport transport) {
+            super(url);
+            this.transport = transport;
+        }
+
+        @Override
+        public void connect() throws IOException {
+            if (connected) {
+                return;
+            }
+            exchange = transport.find(getRequestMethod(), url);
+            if (exchange == null) {
+                throw new FileNotFoundException("No recording for " + getRequestMethod() + " " + url);
+            }
+            headerKeys = new ArrayList<>(exchange.getResponseHeaders().keySet());
+            connected = true;
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return false;
+        }
+
+        @Override
+        public void setRequestProperty(String key, String value) {
+            requestProperties.put(key, new ArrayList<>(Collections.singletonList(value)));
+        }
+
+        @Override
+        public void addRequestProperty(String key, String value) {
+            requestProperties.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+        }
+
+        @Override
+        public String getRequestProperty(String key) {
+            List<String> values = requestProperties.get(key);
+            return values == null || values.isEmpty() ? null : values.get(0);
+        }
+
+        @Override
+        public Map<String, List<String>> getRequestProperties() {
+            return Collections.unmodifiableMap(requestProperties);
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return requestBody;
+        }
+
+        @Override
+        public int getResponseCode() throws IOException {
+            connect();
+            return exchange.getStatus();
+        }
+
+        @Override
+        public String getResponseMessage() throws IOException {
+            connect();
+            return exchange.getMessage();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            connect();
+            if (exchange.getStatus() >= 400) {
+                throw new IOException("Server returned HTTP response code: " + exchange.getStatus() + " for URL: " + url);
+            }
+            return new ByteArrayInputStream(exchange.getResponseBody());
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            if (exchange == null || exchange.getStatus() < 400) {
+                return null;
+            }
+            return new ByteArrayInputStream(exchange.getResponseBody());
+        }
+
+        @Override
+        public String getHeaderField(String name) {
+            try {
+                connect();
+            } catch (IOException e) {
+                return null;
+            }
+            return exchange.getResponseHeader(name);
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaderFields() {
+            try {
+                connect();
+            } catch (IOException e) {
+                return Collections.emptyMap();
+            }
+            return exchange.getResponseHeaders();
+        }
+
+        @Override
+        public String getHeaderFieldKey(int n) {
+            try {
+                connect();
+            } catch (IOException e) {
+                return null;
+            }
+            return n < headerKeys.size() ? headerKeys.get(n) : null;
+        }
+
+        @Override
+        public String getHeaderField(int n) {
+            String key = getHeaderFieldKey(n);
+            return key == null ? null : exchange.getResponseHeader(key);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.transport;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Describes when and how often a failed request should be retried. Instances are immutable, every {@code with}
+ * method returns a modified copy
+ */
+public final class RetryPolicy {
+    private static final RetryPolicy NONE = new RetryPolicy(1, 0, 0, 0, Collections.emptySet(), Collections.emptySet());
+    private static final RetryPolicy DEFAULTS = new RetryPolicy(3, 250, 5000, 0.5,
+            new HashSet<>(Arrays.asList(502, 503, 504)),
+            new HashSet<>(Arrays.asList(SocketTimeoutException.class, ConnectException.class, SocketException.class)));
+
+    private final int maxAttempts;
+    private final long initialBackoff;
+    private final long maxBackoff;
+    private final double jitter;
+    private final Set<Integer> statuses;
+    private final Set<Class<? extends IOException>> exceptions;
+
+    private RetryPolicy(int maxAttempts, long initialBackoff, long maxBackoff, double jitter, Set<Integer> statuses, Set<Class<? extends IOException>> exceptions) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.jitter = jitter;
+        this.statuses = Collections.unmodifiableSet(statuses);
+        this.exceptions = Collections.unmodifiableSet(exceptions);
+    }
+
+    /**
+     * @return A policy which never retries
+     */
+    public static RetryPolicy none() {
+        return NONE;
+    }
+
+    /**
+     * @return A policy which tries three times, backing off from 250ms, on 502, 503, 504, timeouts and socket errors
+     */
+    public static RetryPolicy defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * @param maxAttempts The total amount of attempts, including the first
+     * @return The modified policy
+     */
+    public RetryPolicy withMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) throw new IllegalArgumentException("At least one attempt is required");
+        return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff, jitter, statuses, exceptions);
+    }
+
+    /**
+     * @param initialBackoff The delay in milliseconds before the first retry, doubled for every following retry
+     * @param maxBackoff     The maximum delay in milliseconds between two attempts
+     * @return The modified policy
+     */
+    public RetryPolicy withBackoff(long initialBackoff, long maxBackoff) {
+        if (initialBackoff < 0 || maxBackoff < initialBackoff) throw new IllegalArgumentException("Invalid backoff");
+        return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff, jitter, statuses, exceptions);
+    }
+
+    /**
+     * @param jitter The fraction of each delay which is randomized, between 0 and 1
+     * @return The modified policy
+     */
+    public RetryPolicy withJitter(double jitter) {
+        if (jitter < 0 || jitter > 1) throw new IllegalArgumentException("Jitter must be between 0 and 1");
+        return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff, jitter, statuses, exceptions);
+    }
+
+    /**
+     * @param statuses The response codes which should be retried, replacing the current ones
+     * @return The modified policy
+     */
+    public RetryPolicy withRetryableStatuses(Integer... statuses) {
+        return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff, jitter, new HashSet<>(Arrays.asList(statuses)), exceptions);
+    }
+
+    /**
+     * @param exceptions The exceptions (and their subclasses) which should be retried, replacing the current ones
+     * @return The modified policy
+     */
+    @SafeVarargs
+    public final RetryPolicy withRetryableExceptions(Class<? extends IOException>... exceptions) {
+        return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff, jitter, statuses, new HashSet<>(Arrays.asList(exceptions)));
+    }
+
+    public int getMaxAttempts() {
+        return this.maxAttempts;
+    }
+
+    public boolean isRetryable(int status) {
+        return statuses.contains(status);
+    }
+
+    public boolean isRetryable(IOException exception) {
+        for (Class<? extends IOException> clazz : exceptions) {
+            if (clazz.isInstance(exception)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get how long to wait before the given attempt
+     *
+     * @param attempt The attempt which is about to be made, starting from 2 for the first retry
+     * @return The delay in milliseconds
+     */
+    public long getDelay(int attempt) {
+        long delay = initialBackoff;
+        for (int i = 2; i < attempt && delay < maxBackoff; i++) {
+            delay *= 2;
+        }
+        delay = Math.min(delay, maxBackoff);
+        long spread = (long) (delay * jitter);
+        return spread == 0 ? delay : delay - spread + ThreadLocalRandom.current().nextLong(spread + 1);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.transport;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Sends every request to a different base URL, keeping the original host as the first path segment. For example,
+ * with a base of {@code http://localhost:8080}, {@code https://api.skype.com/users/self/profile} is sent to
+ * {@code http://localhost:8080/api.skype.com/users/self/profile}. Used to point a client at a {@link StandInGateway}
+ * or any other local stand-in for the Skype services
+ */
+public class RewritingTransport implements Transport {
+    private final Transport delegate;
+    private final String base;
+
+    /**
+     * @param delegate The transport which opens the rewritten connections
+     * @param base     The base URL to send requests to, without a trailing slash
+     */
+    public RewritingTransport(Transport delegate, String base) {
+        this.delegate = delegate;
+        this.base = base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+    }
+
+    @Override
+    public HttpURLConnection open(URL url) throws IOException {
+        return delegate.open(resolve(url));
+    }
+
+    @Override
+    public void release(HttpURLConnection connection) {
+        delegate.release(connection);
+    }
+
+    @Override
+    public void release(HttpURLConnection connection, boolean responded) {
+        delegate.release(connection, responded);
+    }
+
+    @Override
+    public URL resolve(URL url) throws IOException {
+        if (url.toString().startsWith(base + "/")) {
+            return url;
+        }
+        String host = url.getPort() == -1 ? url.getHost() : url.getHost() + ":" + url.getPort();
+        String file = url.getFile().isEmpty() ? "/" : url.getFile();
+        // The live service accepts the | in view parameters unescaped, but most local servers require a valid URI
+        return new URL(base + "/" + host + file.replace("|", "%7C"));
+    }
+}
@@ -0,0 +1,851 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.transport;
+
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A local stand-in for the Skype services, for running a client end to end without a network. Point a client at it
+ * with {@link #createTransport()}, which sends every request here through a {@link RewritingTransport}.
+ *
+ * Login, registration, subscription, polling, sending messages, chat info, contacts, profiles, media uploads and
+ * the trouter websocket are synthesized. Events are fed to clients through the poll endpoint with
+ * {@link #pushMessage(String, String, String)} and {@link #pushEvent(JsonObject)}, and through the websocket with
+ * {@link #pushTrouterEvent(int)}. Requests which are not synthesized can be answered from a recording made by
+ * {@link RecordingTransport}
+ */
+public class StandInGateway implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(StandInGateway.class.getName());
+    private static final String GATEWAY = "client-s.gateway.messenger.live.com";
+    private static final String CONVERSATIONS = "https://" + GATEWAY + "/v1/users/ME/conversations/";
+    private static final String CONTACTS = "https://" + GATEWAY + "/v1/users/ME/contacts/";
+
+    private static final Pattern POLL = Pattern.compile("/v1/users/ME/endpoints/SELF/subscriptions/[^/]+/poll");
+    private static final Pattern MESSAGES = Pattern.compile("/v1/users/ME/conversations/([^/]+)/messages");
+    private static final Pattern THREAD = Pattern.compile("/v1/threads/([^/]+)/?");
+    private static final Pattern OBJECT_CONTENT = Pattern.compile("/v1/objects/([^/]+)/content/([^/]+)");
+    private static final Pattern OBJECT_STATUS = Pattern.compile("/v1/objects/([^/]+)/views/([^/]+)/status");
+    private static final Pattern OBJECT_VIEW = Pattern.compile("/v1/objects/([^/]+)/views/([^/]+)");
+    private static final Pattern RANGE = Pattern.compile("bytes=([0-9]+)-");
+    private static final Pattern START_TIME = Pattern.compile("(?:^|&)startTime=([0-9]+)");
+    private static final Pattern PAGE_SIZE = Pattern.compile("(?:^|&)pageSize=([0-9]+)");
+    private static final Pattern SYNC_STATE = Pattern.compile("(?:^|&)syncState=([0-9]+)");
+    private static final Pattern USERNAMES = Pattern.compile("\"([^\"]+)\"");
+
+    private final String username;
+    private final HttpServer http;
+    private final Trouter trouter;
+    private final ExecutorService executor;
+    private final AtomicLong ids = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong tokens = new AtomicLong();
+    private final AtomicLong subscriptions = new AtomicLong();
+    private final AtomicLong conditionalRequests = new AtomicLong();
+    private final BlockingQueue<JsonObject> events = new LinkedBlockingQueue<>();
+    private final Map<String, JsonObject> contacts = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, List<String>> chats = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<String, List<JsonObject>> history = new ConcurrentHashMap<>();
+    private final Map<String, Long> created = new ConcurrentHashMap<>();
+    private final AtomicInteger rejectedPolls = new AtomicInteger();
+    private final AtomicInteger failedPolls = new AtomicInteger();
+    private final AtomicLong polls = new AtomicLong();
+    private final Set<String> failingUploads = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger activeUploads = new AtomicInteger();
+    private final AtomicInteger maxActiveUploads = new AtomicInteger();
+
+    private volatile ReplayTransport replay;
+    private volatile Consumer<JsonObject> sentListener;
+    private volatile long pollTimeout = TimeUnit.SECONDS.toMillis(1);
+    private volatile int pollBatchSize = 100;
+    private volatile long tokenLifetime = TimeUnit.DAYS.toMillis(1);
+    private volatile long uploadDelay;
+    private volatile boolean ignoreRanges;
+    private volatile boolean rejectGuests;
+    private volatile boolean chunked;
+
+    /**
+     * Create a stand-in on free local ports. Call {@link #start()} to start serving
+     *
+     * @param username The username of the account the stand-in pretends to be logged into
+     * @throws IOException If no port could be bound
+     */
+    public StandInGateway(String username) throws IOException {
+        this.username = username;
+        this.http = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.http.createContext("/", this::handle);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "Skype4J-StandIn");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.http.setExecutor(executor);
+        try (ServerSocket socket = new ServerSocket(0)) {
+            this.trouter = new Trouter(new InetSocketAddress("127.0.0.1", socket.getLocalPort()));
+        }
+    }
+
+    public StandInGateway start() {
+        http.start();
+        trouter.start();
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+        http.stop(0);
+        // Java-WebSocket can block forever in stop() when a client closes its socket at the same moment
+        Thread stopper = new Thread(() -> {
+            try {
+                trouter.stop(1000);
+            } catch (IOException | InterruptedException e) {
+                LOGGER.log(Level.FINE, "Stand-in trouter did not stop cleanly", e);
+            }
+        }, "StandIn-Trouter-Stop");
+        stopper.setDaemon(true);
+        stopper.start();
+        try {
+            stopper.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return The base URL to use with a {@link RewritingTransport}
+     */
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + http.getAddress().getPort();
+    }
+
+    /**
+     * @return A transport which sends every request to this stand-in
+     */
+    public Transport createTransport() {
+        return new RewritingTransport(new KeepAliveTransport(), getBaseUrl());
+    }
+
+    /**
+     * Add a contact to the contact list of the account
+     *
+     * @param username    The username of the contact, without the {@code 8:} prefix
+     * @param displayName The display name of the contact
+     * @return The same StandInGateway
+     */
+    public StandInGateway addContact(String username, String displayName) {
+        contacts.put(username, new JsonObject()
+                .add("person_id", "8:" + username)
+                .add("display_name", displayName)
+                .add("authorized", true)
+                .add("blocked", false)
+                .add("type", "skype"));
+        return this;
+    }
+
+    /**
+     * Add a group chat which the account is a member of
+     *
+     * @param id      The id of the chat, such as {@code 19:abc@thread.skype}
+     * @param members The ids of the members other than the account itself, such as {@code 8:alice}
+     * @return The same StandInGateway
+     */
+    public StandInGateway addChat(String id, String... members) {
+        List<String> all = new ArrayList<>(Arrays.asList(members));
+        all.add("8:" + username);
+        chats.put(id, all);
+        created.put(id, System.currentTimeMillis());
+        return this;
+    }
+
+    /**
+     * Answer requests which are not synthesized from a recording
+     *
+     * @param recordings The directory written by {@link RecordingTransport}
+     * @return The same StandInGateway
+     * @throws IOException If the recordings could not be read
+     */
+    public StandInGateway replayUnknown(Path recordings) throws IOException {
+        this.replay = new ReplayTransport(recordings);
+        return this;
+    }
+
+    /**
+     * @param millis How long a poll waits for events before returning empty
+     * @return The same StandInGateway
+     */
+    public StandInGateway withPollTimeout(long millis) {
+        this.pollTimeout = millis;
+        return this;
+    }
+
+    /**
+     * @param size The maximum amount of events returned by a single poll
+     * @return The same StandInGateway
+     */
+    public StandInGateway withPollBatchSize(int size) {
+        this.pollBatchSize = size;
+        return this;
+    }
+
+    /**
+     * @param millis How long issued skype and registration tokens stay valid
+     * @return The same StandInGateway
+     */
+    public StandInGateway withTokenLifetime(long millis) {
+        this.tokenLifetime = millis;
+        return this;
+    }
+
+    /**
+     * Store an object on the media servers, as if someone had uploaded it
+     *
+     * @param id   The id of the object
+     * @param data The content of the object
+     * @return The same StandInGateway
+     */
+    public StandInGateway addObject(String id, byte[] data) {
+        objects.put(id, data);
+        return this;
+    }
+
+    /**
+     * @param reject Whether guests joining a chat are redirected away, as if the chat did not allow guests
+     * @return The same StandInGateway
+     */
+    public StandInGateway rejectGuests(boolean reject) {
+        this.rejectGuests = reject;
+        return this;
+    }
+
+    /**
+     * @param chunked Whether responses are sent chunked, without declaring their length
+     * @return The same StandInGateway
+     */
+    public StandInGateway withChunkedResponses(boolean chunked) {
+        this.chunked = chunked;
+        return this;
+    }
+
+    /**
+     * @param ignore Whether downloads of objects always send the whole object, even if a range was requested
+     * @return The same StandInGateway
+     */
+    public StandInGateway ignoreRanges(boolean ignore) {
+        this.ignoreRanges = ignore;
+        return this;
+    }
+
+    /**
+     * @param millis How long storing the content of an uploaded object takes
+     * @return The same StandInGateway
+     */
+    public StandInGateway withUploadDelay(long millis) {
+        this.uploadDelay = millis;
+        return this;
+    }
+
+    /**
+     * Reject the creation of objects for uploads of a file
+     *
+     * @param filename The name of the file
+     * @return The same StandInGateway
+     */
+    public StandInGateway failUpload(String filename) {
+        failingUploads.add(filename);
+        return this;
+    }
+
+    /**
+     * @return The highest amount of object contents which were being uploaded at the same time
+     */
+    public int getMaxConcurrentUploads() {
+        return maxActiveUploads.get();
+    }
+
+    /**
+     * @param listener Called with the body of every message sent by a client
+     * @return The same StandInGateway
+     */
+    public StandInGateway onMessageSent(Consumer<JsonObject> listener) {
+        this.sentListener = listener;
+        return this;
+    }
+
+    /**
+     * @return The amount of messages sent by clients
+     */
+    public long getSentMessageCount() {
+        return sent.get();
+    }
+
+    /**
+     * @return The amount of skype tokens issued to clients which logged in with a password
+     */
+    public long getIssuedTokenCount() {
+        return tokens.get();
+    }
+
+    /**
+     * @return The amount of times clients subscribed to the poll endpoint
+     */
+    public long getSubscriptionCount() {
+        return subscriptions.get();
+    }
+
+    /**
+     * @return The amount of contact list requests which carried the ETag of an earlier response
+     */
+    public long getConditionalRequestCount() {
+        return conditionalRequests.get();
+    }
+
+    /**
+     * @return The amount of events waiting to be polled
+     */
+    public int getPendingEvents() {
+        return events.size();
+    }
+
+    /**
+     * Deliver a new text message to the account through the poll endpoint
+     *
+     * @param conversationId The conversation, such as {@code 8:alice} or a group chat id
+     * @param from           The sender, such as {@code 8:alice}
+     * @param content        The HTML content of the message
+     * @return The id of the message
+     */
+    public String pushMessage(String conversationId, String from, String content) {
+        return pushMessage(conversationId, from, "RichText", content);
+    }
+
+    /**
+     * Deliver a new message of any type to the account through the poll endpoint
+     *
+     * @param conversationId The conversation, such as {@code 8:alice} or a group chat id
+     * @param from           The sender, such as {@code 8:alice}
+     * @param messageType    The message type, such as {@code RichText/Media_GenericFile}
+     * @param content        The content of the message
+     * @return The id of the message
+     */
+    public String pushMessage(String conversationId, String from, String messageType, String content) {
+        JsonObject resource = storeMessage(conversationId, from, messageType, content);
+        String id = resource.get("id").asString();
+        pushEvent(new JsonObject()
+                .add("id", ids.incrementAndGet())
+                .add("type", "EventMessage")
+                .add("resourceType", "NewMessage")
+                .add("time", resource.get("originalarrivaltime").asString())
+                .add("resourceLink", CONVERSATIONS + conversationId + "/messages/" + id)
+                .add("resource", resource));
+        return id;
+    }
+
+    /**
+     * Add a text message to the history of a conversation without delivering it through the poll endpoint, as if it
+     * was sent while the client was not polling
+     *
+     * @param conversationId The conversation, such as {@code 8:alice} or a group chat id
+     * @param from           The sender, such as {@code 8:alice}
+     * @param content        The content of the message
+     * @return The id of the message
+     */
+    public String addMissedMessage(String conversationId, String from, String content) {
+        return storeMessage(conversationId, from, "RichText", content).get("id").asString();
+    }
+
+    /**
+     * Answer the next polls with 403 Forbidden, as if the endpoint registration had expired
+     *
+     * @param count The amount of polls to reject
+     * @return The same StandInGateway
+     */
+    public StandInGateway rejectPolls(int count) {
+        rejectedPolls.addAndGet(count);
+        return this;
+    }
+
+    /**
+     * Answer the next polls with 503 Service Unavailable
+     *
+     * @param count The amount of polls to fail
+     * @return The same StandInGateway
+     */
+    public StandInGateway failPolls(int count) {
+        failedPolls.addAndGet(count);
+        return this;
+    }
+
+    /**
+     * @return The amount of polls made by clients
+     */
+    public long getPollCount() {
+        return polls.get();
+    }
+
+    private JsonObject storeMessage(String conversationId, String from, String messageType, String content) {
+        String id = String.valueOf(ids.incrementAndGet());
+        String time = java.time.Instant.now().toString();
+        JsonObject resource = new JsonObject()
+                .add("id", id)
+                .add("clientmessageid", id)
+                .add("version", id)
+                .add("type", "Message")
+                .add("messagetype", messageType)
+                .add("contenttype", "text")
+                .add("content", content)
+                .add("conversationLink", CONVERSATIONS + conversationId)
+                .add("from", CONTACTS + from)
+                .add("imdisplayname", from)
+                .add("composetime", time)
+                .add("originalarrivaltime", time);
+        history.computeIfAbsent(conversationId, key -> Collections.synchronizedList(new ArrayList<>())).add(resource);
+        return resource;
+    }
+
+    /**
+     * Deliver a raw event message through the poll endpoint
+     *
+     * @param eventMessage An element of the {@code eventMessages} array of a poll response
+     */
+    public void pushEvent(JsonObject eventMessage) {
+        events.add(eventMessage);
+    }
+
+    /**
+     * Send a trouter notification to every connected websocket
+     *
+     * @param evt The event code, such as 6 for a contact list change or 14 for a contact request
+     */
+    public void pushTrouterEvent(int evt) {
+        JsonObject message = new JsonObject()
+                .add("id", ids.incrementAndGet())
+                .add("method", "POST")
+                .add("url", "/")
+                .add("headers", new JsonObject())
+                .add("body", new JsonObject().add("evt", evt).toString());
+        for (WebSocket socket : trouter.connections()) {
+            socket.send("3:::" + message);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            int slash = path.indexOf('/', 1);
+            String host = slash == -1 ? path.substring(1) : path.substring(1, slash);
+            path = slash == -1 ? "/" : path.substring(slash);
+            byte[] body = readFully(exchange.getRequestBody());
+            if (!respond(exchange, exchange.getRequestMethod(), host, path, body)) {
+                fallback(exchange, host, body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // Usually a client which disconnected during a long poll
+            LOGGER.log(Level.FINE, "Stand-in could not answer " + exchange.getRequestURI(), e);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Stand-in failed to answer " + exchange.getRequestURI(), e);
+            send(exchange, 500, null, new byte[0]);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private boolean respond(HttpExchange exchange, String method, String host, String path, byte[] body) throws Exception {
+        Matcher matcher;
+        if (host.endsWith(GATEWAY)) {
+            if (method.equals("POST") && POLL.matcher(path).matches()) {
+                polls.incrementAndGet();
+                if (rejectedPolls.getAndUpdate(count -> Math.max(count - 1, 0)) > 0) {
+                    json(exchange, 403, new JsonObject());
+                } else if (failedPolls.getAndUpdate(count -> Math.max(count - 1, 0)) > 0) {
+                    json(exchange, 503, new JsonObject());
+                } else {
+                    json(exchange, 200, poll());
+                }
+            } else if (method.equals("POST") && path.equals("/v1/users/ME/endpoints")) {
+                exchange.getResponseHeaders().add("Set-RegistrationToken", registrationToken("{" + UUID.randomUUID() + "}"));
+                json(exchange, 201, new JsonObject());
+            } else if (method.equals("PUT") && path.startsWith("/v1/users/ME/endpoints/") && path.indexOf('/', "/v1/users/ME/endpoints/".length()) == -1) {
+                String endpointId = path.substring("/v1/users/ME/endpoints/".length());
+                exchange.getResponseHeaders().add("Set-RegistrationToken", registrationToken(endpointId));
+                json(exchange, 200, new JsonObject().add("subscriptions", new JsonArray().add(new JsonObject().add("id", 0))));
+            } else if (method.equals("POST") && path.equals("/v1/users/ME/endpoints/SELF/subscriptions")) {
+                subscriptions.incrementAndGet();
+                json(exchange, 201, new JsonObject());
+            } else if (method.equals("POST") && path.endsWith("/active")) {
+                json(exchange, 201, new JsonObject());
+            } else if ((matcher = MESSAGES.matcher(path)).matches()) {
+                if (method.equals("POST")) {
+                    sent.incrementAndGet();
+                    Consumer<JsonObject> listener = sentListener;
+                    if (listener != null) {
+                        listener.accept(JsonObject.readFrom(new String(body, StandardCharsets.UTF_8)).add("conversation", matcher.group(1)));
+                    }
+                    json(exchange, 201, new JsonObject().add("OriginalArrivalTime", System.currentTimeMillis()));
+                } else {
+                    json(exchange, 200, history(matcher.group(1), exchange.getRequestURI().getRawQuery()));
+                }
+            } else if (method.equals("GET") && path.equals("/v1/users/ME/conversations")) {
+                json(exchange, 200, conversations(exchange.getRequestURI().getRawQuery()));
+            } else if (method.equals("POST") && path.equals("/v1/threads")) {
+                String id = "19:" + UUID.randomUUID().toString().replace("-", "") + "@thread.skype";
+                JsonArray members = JsonObject.readFrom(new String(body, StandardCharsets.UTF_8)).get("members").asArray();
+                List<String> ids = new ArrayList<>();
+                members.forEach(member -> ids.add(member.asObject().get("id").asString()));
+                chats.put(id, ids);
+                created.put(id, System.currentTimeMillis());
+                exchange.getResponseHeaders().add("Location", "https://" + GATEWAY + "/v1/threads/" + id);
+                json(exchange, 201, new JsonObject());
+            } else if (method.equals("GET") && (matcher = THREAD.matcher(path)).matches()) {
+                List<String> members = chats.get(matcher.group(1));
+                if (members == null) {
+                    json(exchange, 404, new JsonObject());
+                } else {
+                    JsonArray array = new JsonArray();
+                    for (String member : members) {
+                        array.add(new JsonObject().add("id", member).add("role", member.equals("8:" + username) ? "Admin" : "User"));
+                    }
+                    json(exchange, 200, new JsonObject().add("id", matcher.group(1)).add("properties", new JsonObject()).add("members", array));
+                }
+            } else if (!method.equals("GET")) {
+                json(exchange, 200, new JsonObject());
+            } else {
+                return false;
+            }
+        } else if (host.equals("api.skype.com")) {
+            if (method.equals("GET") && path.equals("/users/self/profile")) {
+                json(exchange, 200, new JsonObject().add("username", username).add("firstname", username));
+            } else if (method.equals("POST") && path.equals("/users/batch/profiles")) {
+                JsonArray profiles = new JsonArray();
+                Matcher names = USERNAMES.matcher(new String(body, StandardCharsets.UTF_8));
+                while (names.find()) {
+                    if (!names.group(1).equals("usernames")) {
+                        profiles.add(new JsonObject().add("username", names.group(1)).add("firstname", names.group(1)));
+                    }
+                }
+                json(exchange, 200, profiles);
+            } else if (method.equals("GET") && path.equals("/users/self/contacts/auth-request")) {
+                json(exchange, 200, new JsonArray());
+            } else {
+                return false;
+            }
+        } else if (host.equals("contacts.skype.com")) {
+            if (!method.equals("GET")) {
+                return false;
+            }
+            JsonArray array = new JsonArray();
+            synchronized (contacts) {
+                contacts.values().forEach(array::add);
+            }
+            JsonObject list = new JsonObject().add("contacts", array).add("blocklist", new JsonArray());
+            String etag = "\"" + Integer.toHexString(list.toString().hashCode()) + "\"";
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            if (ifNoneMatch != null) {
+                conditionalRequests.incrementAndGet();
+            }
+            exchange.getResponseHeaders().add("ETag", etag);
+            if (etag.equals(ifNoneMatch)) {
+                send(exchange, 304, null, new byte[0]);
+            } else {
+                json(exchange, 200, list);
+            }
+        } else if (host.equals("edge.skype.com")) {
+            tokens.incrementAndGet();
+            json(exchange, 200, new JsonObject().add("skypetoken", skypeToken(username)).add("skypeid", username).add("expiresIn", 86400));
+        } else if (host.equals("login.live.com")) {
+            if (path.equals("/oauth20_authorize.srf")) {
+                exchange.getResponseHeaders().add("Set-Cookie", "MSPOK=standin; path=/");
+                String post = getBaseUrl() + "/login.live.com/ppsecure/post.srf";
+                send(exchange, 200, "text/html", ("<html><script>var ServerData = {urlPost:'" + post + "'};</script>"
+                        + "<input type=\"hidden\" name=\"PPFT\" value=\"standin\"/></html>").getBytes(StandardCharsets.UTF_8));
+            } else {
+                exchange.getResponseHeaders().add("Location", "https://login.live.com/oauth20_desktop.srf?lc=1033#access_token=standin&token_type=bearer");
+                send(exchange, 302, null, new byte[0]);
+            }
+        } else if (host.equals("join.skype.com")) {
+            if (method.equals("POST") && rejectGuests) {
+                exchange.getResponseHeaders().add("Location", "https://join.skype.com/");
+                send(exchange, 303, null, new byte[0]);
+            } else if (method.equals("POST")) {
+                json(exchange, 201, new JsonObject().add("skypetoken", skypeToken("guest:" + username)));
+            } else {
+                json(exchange, 200, new JsonObject());
+            }
+        } else if (host.equals("web.skype.com")) {
+            send(exchange, 200, "text/html", "<html></html>".getBytes(StandardCharsets.UTF_8));
+        } else if (host.endsWith("asm.skype.com")) {
+            if (path.equals("/v1/skypetokenauth")) {
+                exchange.getResponseHeaders().add("Set-Cookie", "skypetoken_asm=standin; path=/");
+                send(exchange, 204, null, new byte[0]);
+            } else if (method.equals("POST") && path.equals("/v1/objects")) {
+                JsonValue filename = JsonObject.readFrom(new String(body, StandardCharsets.UTF_8)).get("filename");
+                if (filename != null && failingUploads.contains(filename.asString())) {
+                    json(exchange, 400, new JsonObject());
+                } else {
+                    json(exchange, 201, new JsonObject().add("id", "0-standin-" + ids.incrementAndGet()));
+                }
+            } else if (method.equals("PUT") && (matcher = OBJECT_CONTENT.matcher(path)).matches()) {
+                int active = activeUploads.incrementAndGet();
+                maxActiveUploads.accumulateAndGet(active, Math::max);
+                try {
+                    Thread.sleep(uploadDelay);
+                    objects.put(matcher.group(1), body);
+                } finally {
+                    activeUploads.decrementAndGet();
+                }
+                json(exchange, 201, new JsonObject());
+            } else if (method.equals("GET") && (matcher = OBJECT_STATUS.matcher(path)).matches()) {
+                String view = "https://api.asm.skype.com/v1/objects/" + matcher.group(1) + "/views/" + matcher.group(2);
+                json(exchange, 200, new JsonObject()
+                        .add("content_state", "ready")
+                        .add("view_state", "ready")
+                        .add("view_location", view)
+                        .add("status_location", view + "/status"));
+            } else if (method.equals("GET") && (matcher = OBJECT_VIEW.matcher(path)).matches()) {
+                byte[] data = objects.get(matcher.group(1));
+                String range = exchange.getRequestHeaders().getFirst("Range");
+                Matcher offset = RANGE.matcher(range == null || ignoreRanges ? "" : range);
+                if (data == null) {
+                    json(exchange, 404, new JsonObject());
+                } else if (!offset.matches()) {
+                    send(exchange, 200, "application/octet-stream", data);
+                } else if (Long.parseLong(offset.group(1)) >= data.length) {
+                    exchange.getResponseHeaders().add("Content-Range", "bytes */" + data.length);
+                    send(exchange, 416, null, new byte[0]);
+                } else {
+                    int start = Integer.parseInt(offset.group(1));
+                    exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + (data.length - 1) + "/" + data.length);
+                    send(exchange, 206, "application/octet-stream", Arrays.copyOfRange(data, start, data.length));
+                }
+            } else {
+                return false;
+            }
+        } else if (host.equals("go.trouter.io")) {
+            if (path.equals("/v2/a")) {
+                json(exchange, 200, new JsonObject()
+                        .add("socketio", "http://127.0.0.1:" + trouter.getPort() + "/")
+                        .add("surl", "https://127.0.0.1:" + trouter.getPort() + "/standin")
+                        .add("url", "https://127.0.0.1:" + trouter.getPort() + "/")
+                        .add("connId", "standin")
+                        .add("ccid", "standin")
+                        .add("instance", "standin")
+                        .add("instancePort", trouter.getPort()));
+            } else {
+                json(exchange, 200, new JsonObject());
+            }
+        } else if (host.equals("prod.tpc.skype.com")) {
+            json(exchange, 200, new JsonObject().add("sig", "standin"));
+        } else if (host.equals("prod.registrar.skype.com")) {
+            send(exchange, 202, null, new byte[0]);
+        } else if (path.startsWith("/socket.io/")) {
+            send(exchange, 200, "text/plain", "standin:60:60:websocket".getBytes(StandardCharsets.UTF_8));
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private void fallback(HttpExchange exchange, String host, byte[] body) throws IOException {
+        ReplayTransport replay = this.replay;
+        if (replay != null) {
+            String query = exchange.getRequestURI().getRawQuery();
+            URL url = new URL("https://" + host + exchange.getRequestURI().getRawPath().substring(host.length() + 1)
+                    + (query == null ? "" : "?" + query));
+            Exchange recorded = replay.find(exchange.getRequestMethod(), url);
+            if (recorded != null) {
+                for (Map.Entry<String, List<String>> header : recorded.getResponseHeaders().entrySet()) {
+                    if (!header.getKey().equalsIgnoreCase("Content-Length") && !header.getKey().equalsIgnoreCase("Transfer-Encoding")) {
+                        exchange.getResponseHeaders().put(header.getKey(), header.getValue());
+                    }
+                }
+                send(exchange, recorded.getStatus(), null, recorded.getResponseBody());
+                return;
+            }
+        }
+        LOGGER.fine("Stand-in has no answer for " + exchange.getRequestMethod() + " " + exchange.getRequestURI());
+        json(exchange, 404, new JsonObject());
+    }
+
+    private JsonObject poll() throws InterruptedException {
+        JsonArray messages = new JsonArray();
+        JsonObject first = events.poll(pollTimeout, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return new JsonObject();
+        }
+        messages.add(first);
+        List<JsonObject> more = new ArrayList<>();
+        events.drainTo(more, pollBatchSize - 1);
+        more.forEach(messages::add);
+        return new JsonObject().add("eventMessages", messages);
+    }
+
+    /**
+     * List the conversations which were created or had a message since the start time, most recently active first
+     */
+    private JsonObject conversations(String query) {
+        long startTime = queryParameter(query, START_TIME, 0);
+        int pageSize = (int) queryParameter(query, PAGE_SIZE, Integer.MAX_VALUE);
+        Map<String, Long> activity = new HashMap<>(created);
+        Map<String, JsonObject> lastMessages = new HashMap<>();
+        for (Map.Entry<String, List<JsonObject>> conversation : history.entrySet()) {
+            synchronized (conversation.getValue()) {
+                if (!conversation.getValue().isEmpty()) {
+                    JsonObject last = conversation.getValue().get(conversation.getValue().size() - 1);
+                    lastMessages.put(conversation.getKey(), last);
+                    activity.put(conversation.getKey(), java.time.Instant.parse(last.get("originalarrivaltime").asString()).toEpochMilli());
+                }
+            }
+        }
+        JsonArray array = new JsonArray();
+        activity.entrySet().stream()
+                .filter(conversation -> conversation.getValue() >= startTime)
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(pageSize)
+                .forEach(conversation -> array.add(new JsonObject()
+                        .add("id", conversation.getKey())
+                        .add("lastMessage", lastMessages.getOrDefault(conversation.getKey(), new JsonObject()))));
+        return new JsonObject().add("conversations", array).add("_metadata", new JsonObject());
+    }
+
+    private JsonObject history(String conversationId, String query) {
+        long startTime = queryParameter(query, START_TIME, 0);
+        int pageSize = (int) queryParameter(query, PAGE_SIZE, Integer.MAX_VALUE);
+        int offset = (int) queryParameter(query, SYNC_STATE, 0);
+        List<JsonObject> messages = new ArrayList<>(history.getOrDefault(conversationId, Collections.emptyList()));
+        Collections.reverse(messages);
+        messages.removeIf(message -> java.time.Instant.parse(message.get("originalarrivaltime").asString()).toEpochMilli() < startTime);
+        JsonArray array = new JsonArray();
+        messages.subList(Math.min(offset, messages.size()), (int) Math.min((long) offset + pageSize, messages.size())).forEach(array::add);
+        JsonObject metadata = new JsonObject();
+        if ((long) offset + pageSize < messages.size()) {
+            metadata.add("backwardLink", CONVERSATIONS + conversationId + "/messages?startTime=" + startTime
+                    + "&pageSize=" + pageSize + "&syncState=" + (offset + pageSize));
+        }
+        return new JsonObject().add("messages", array).add("_metadata", metadata);
+    }
+
+    private static long queryParameter(String query, Pattern pattern, long defaultValue) {
+        Matcher matcher = pattern.matcher(query == null ? "" : query);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : defaultValue;
+    }
+
+    private String registrationToken(String endpointId) {
+        long expires = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() + tokenLifetime);
+        return "registrationToken=standin; expires=" + expires + "; endpointId=" + endpointId;
+    }
+
+    private String skypeToken(String skypeId) {
+        long expires = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() + tokenLifetime);
+        String payload = new JsonObject().add("exp", expires).add("skypeid", skypeId).toString();
+        return "standin." + Base64.getEncoder().encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".standin";
+    }
+
+    private void json(HttpExchange exchange, int status, JsonValue body) throws IOException {
+        send(exchange, status, "application/json", body.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        if (contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+        }
+        boolean empty = body.length == 0 || status == 204 || status == 304;
+        exchange.sendResponseHeaders(status, empty ? -1 : chunked ? 0 : body.length);
+        if (!empty) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[8192];
+        int read;
+        while ((read = in.read(buf)) != -1) {
+            out.write(buf, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static class Trouter extends WebSocketServer {
+        Trouter(InetSocketAddress address) {
+            super(address);
+        }
+
+        @Override
+        public void onOpen(WebSocket socket, ClientHandshake handshake) {
+            socket.send("1::");
+        }
+
+        @Override
+        public void onClose(WebSocket socket, int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onMessage(WebSocket socket, String message) {
+        }
+
+        @Override
+        public void onError(WebSocket socket, Exception e) {
+            LOGGER.log(Level.FINE, "Stand-in trouter error", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 Sam Sun <me@samczsun.com>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.samczsun.skype4j.transport;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Represents the layer which opens and releases the HTTP connections used to talk to Skype.
+ * A single transport may be shared between several Skype instances
+ */
+public interface Transport {
+    /**
+     * Open a connection to the given URL. The connection must not have been connected yet,
+     * as headers and the request method will be set on it afterwards
+     *
+     * @param url The URL to connect to
+     * @return The unconnected connection
+     * @throws IOException If the connection could not be opened
+     */
+    HttpURLConnection open(URL url) throws IOException;
+
+    /**
+     * Release a connection once its response has been consumed. Implementations may keep the underlying socket
+     * around so it can be reused by a later request to the same host
+     *
+     * @param connection The connection to release
+     */
+    void release(HttpURLConnection connection);
+
+    /**
+     * Release a connection which may not have received a response, for example because connecting or sending the
+     * request failed. Reading from such a connection would send the request again, so it is disconnected instead
+     *
+     * @param connection The connection to release
+     * @param responded  Whether the status of the response was received
+     */
+    default void release(HttpURLConnection connection, boolean responded) {
+        if (responded) {
+            release(connection);
+        } else {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Get the address a request to the given URL is actually sent to. Used by the few requests which cannot go
+     * through {@link #open(URL)}, such as the Microsoft account login, so that they can be redirected as well
+     *
+     * @param url The URL of the request
+     * @return The URL to send the request to
+     */
+    default URL resolve(URL url) throws IOException {
+        return url;
+    }
+}
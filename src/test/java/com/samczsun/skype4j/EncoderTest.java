@@ -0,0 +1,26 @@
+package com.samczsun.skype4j;
+
+import com.samczsun.skype4j.internal.utils.Encoder;
+import org.junit.Test;
+
+import java.net.URLEncoder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class EncoderTest {
+    @Test
+    public void testMatchesURLEncoder() throws Exception {
+        String[] inputs = {"", "abcXYZ019.-*_", "a b+c", "8:live:user@example.com", "{12ab-34cd}", "p@ss w0rd/?&=#%",
+                "éü中文", "😀 smile", "lone \ud83d surrogate", "\u0000\u007f~!'()"};
+        for (String input : inputs) {
+            assertEquals(input, URLEncoder.encode(input, "UTF-8"), Encoder.encode(input));
+        }
+    }
+
+    @Test
+    public void testSafeStringIsNotCopied() {
+        String safe = "19.abc_def-ghi";
+        assertSame(safe, Encoder.encode(safe));
+    }
+}
@@ -0,0 +1,92 @@
+package com.samczsun.skype4j;
+
+import com.samczsun.skype4j.events.EventHandler;
+import com.samczsun.skype4j.events.Listener;
+import com.samczsun.skype4j.events.UnsupportedEvent;
+import com.samczsun.skype4j.internal.RegisteredListener;
+import com.samczsun.skype4j.internal.SkypeEventDispatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of delivering an event to listeners. Run {@link #main(String[])} with the test classpath, e.g.
+ * {@code mvn test-compile} followed by {@code java -cp target/test-classes:target/classes:<dependencies>
+ * com.samczsun.skype4j.EventDispatchBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventDispatchBenchmark {
+    @Param({"1", "10"})
+    public int listeners;
+
+    private final UnsupportedEvent event = new UnsupportedEvent("benchmark", "");
+    private SkypeEventDispatcher dispatcher;
+    private RegisteredListener compiled;
+    private RegisteredListener reflective;
+
+    public static class CountingListener implements Listener {
+        private long count;
+
+        @EventHandler
+        public void onEvent(UnsupportedEvent event) {
+            count++;
+        }
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        dispatcher = new SkypeEventDispatcher(null);
+        for (int i = 0; i < listeners; i++) {
+            dispatcher.registerListener(new CountingListener());
+        }
+        CountingListener listener = new CountingListener();
+        compiled = new RegisteredListener(listener, CountingListener.class.getMethod("onEvent", UnsupportedEvent.class));
+        reflective = new RegisteredListener(listener, CountingListener.class.getMethod("onEvent", UnsupportedEvent.class), false);
+    }
+
+    /**
+     * The cost of a single listener called through a generated invoker
+     */
+    @Benchmark
+    public void compiledListener() throws Exception {
+        compiled.handleEvent(event);
+    }
+
+    /**
+     * The cost of a single listener called through reflection, as used for listeners the invoker cannot reach
+     */
+    @Benchmark
+    public void reflectiveListener() throws Exception {
+        reflective.handleEvent(event);
+    }
+
+    /**
+     * The cost of dispatching an event to every registered listener
+     */
+    @Benchmark
+    public void dispatch() {
+        dispatcher.callEvent(event);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EventDispatchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,158 @@
+package com.samczsun.skype4j;
+
+import com.samczsun.skype4j.events.Cancellable;
+import com.samczsun.skype4j.events.Event;
+import com.samczsun.skype4j.events.EventHandler;
+import com.samczsun.skype4j.events.EventPriority;
+import com.samczsun.skype4j.events.Listener;
+import com.samczsun.skype4j.events.UnsupportedEvent;
+import com.samczsun.skype4j.internal.SkypeEventDispatcher;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EventDispatcherTest {
+    public static class RecordingListener implements Listener {
+        private final List<String> calls;
+        private final String name;
+
+        public RecordingListener(List<String> calls, String name) {
+            this.calls = calls;
+            this.name = name;
+        }
+
+        @EventHandler
+        public void onUnsupported(UnsupportedEvent event) {
+            calls.add(name + ":unsupported");
+        }
+
+        @EventHandler
+        public void onAny(Event event) {
+            calls.add(name + ":any");
+        }
+    }
+
+    @Test
+    public void testRegistrationInvalidatesTables() {
+        SkypeEventDispatcher dispatcher = new SkypeEventDispatcher(null);
+        List<String> calls = new ArrayList<>();
+        dispatcher.callEvent(new UnsupportedEvent("a", ""));
+        assertEquals(0, calls.size());
+
+        dispatcher.registerListener(new RecordingListener(calls, "first"));
+        dispatcher.callEvent(new UnsupportedEvent("a", ""));
+        assertEquals(Arrays.asList("first:unsupported", "first:any"), calls);
+
+        calls.clear();
+        dispatcher.registerListener(new RecordingListener(calls, "second"));
+        dispatcher.callEvent(new UnsupportedEvent("a", ""));
+        assertEquals(Arrays.asList("first:unsupported", "second:unsupported", "first:any", "second:any"), calls);
+    }
+
+    public static class CancellableEvent extends Event implements Cancellable {
+        private boolean cancelled;
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void setCancelled(boolean cancelled) {
+            this.cancelled = cancelled;
+        }
+    }
+
+    public static class PriorityListener implements Listener {
+        private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch async = new CountDownLatch(1);
+        private volatile Thread asyncThread;
+
+        @EventHandler(priority = EventPriority.LOW)
+        public void low(CancellableEvent event) {
+            calls.add("low");
+        }
+
+        @EventHandler(priority = EventPriority.HIGHEST)
+        public void highest(CancellableEvent event) {
+            calls.add("highest");
+            event.setCancelled(true);
+        }
+
+        @EventHandler
+        public void normal(CancellableEvent event) {
+            calls.add("normal");
+        }
+
+        @EventHandler(ignoreCancelled = true)
+        public void skipped(CancellableEvent event) {
+            calls.add("skipped");
+        }
+
+        @EventHandler(executor = "slow")
+        public void slow(CancellableEvent event) {
+            asyncThread = Thread.currentThread();
+            async.countDown();
+        }
+    }
+
+    @Test
+    public void testPriorityCancellationAndExecutors() throws Exception {
+        SkypeEventDispatcher dispatcher = new SkypeEventDispatcher(null);
+        ExecutorService slow = Executors.newSingleThreadExecutor();
+        dispatcher.registerExecutor("slow", slow);
+        PriorityListener listener = new PriorityListener();
+        dispatcher.registerListener(listener);
+        dispatcher.callEvent(new CancellableEvent());
+
+        assertTrue(listener.async.await(5, TimeUnit.SECONDS));
+        assertNotEquals(Thread.currentThread(), listener.asyncThread);
+        assertEquals(Arrays.asList("highest", "normal", "low"), listener.calls);
+        slow.shutdown();
+    }
+
+    public static class BlockingListener implements Listener {
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final Thread caller = Thread.currentThread();
+        private volatile boolean calledOnCaller;
+
+        @EventHandler(async = true)
+        public void onUnsupported(UnsupportedEvent event) throws InterruptedException {
+            if (Thread.currentThread() == caller) {
+                calledOnCaller = true;
+            } else {
+                release.await(5, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    @Test
+    public void testAsyncPoolPushesBack() {
+        SkypeEventDispatcher dispatcher = new SkypeEventDispatcher(null);
+        BlockingListener listener = new BlockingListener();
+        dispatcher.registerListener(listener);
+        // Far more than the pool can hold while every one of its threads is stuck
+        for (int i = 0; i < 1000 && !listener.calledOnCaller; i++) {
+            dispatcher.callEvent(new UnsupportedEvent("a", ""));
+        }
+        assertTrue(listener.calledOnCaller);
+        listener.release.countDown();
+        dispatcher.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownExecutor() {
+        new SkypeEventDispatcher(null).registerListener(new PriorityListener());
+    }
+}
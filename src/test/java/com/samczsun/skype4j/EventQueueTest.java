@@ -0,0 +1,91 @@
+package com.samczsun.skype4j;
+
+import com.eclipsesource.json.JsonObject;
+import com.samczsun.skype4j.internal.EventQueue;
+import com.samczsun.skype4j.internal.utils.StripedExecutor;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EventQueueTest {
+    private static JsonObject event(int id, String messageType) {
+        return new JsonObject()
+                .add("id", id)
+                .add("resourceType", "NewMessage")
+                .add("resource", new JsonObject()
+                        .add("messagetype", messageType)
+                        .add("conversationLink", "https://client-s.gateway.messenger.live.com/v1/users/ME/conversations/19:a@thread.skype"));
+    }
+
+    @Test
+    public void testSpillKeepsOrder() throws Exception {
+        StripedExecutor executor = new StripedExecutor(Executors.newFixedThreadPool(2), 16);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(100);
+        List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+        EventQueue queue = new EventQueue(executor, 4, OverflowPolicy.SPILL_TO_DISK, event -> {
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+            seen.add(event.get("id").asInt());
+            done.countDown();
+        }, Throwable::printStackTrace);
+
+        for (int i = 0; i < 100; i++) {
+            queue.offer(event(i, "RichText"));
+        }
+        assertEquals(100, queue.size());
+        assertEquals(96, queue.spilled());
+
+        release.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, (int) seen.get(i));
+        }
+        assertEquals(0, queue.spilled());
+        queue.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDropTyping() throws Exception {
+        StripedExecutor executor = new StripedExecutor(Executors.newFixedThreadPool(1), 1);
+        CountDownLatch release = new CountDownLatch(1);
+        EventQueue queue = new EventQueue(executor, 2, OverflowPolicy.DROP_LOW_PRIORITY, event -> {
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+        }, Throwable::printStackTrace);
+
+        queue.offer(event(0, "RichText"));
+        queue.offer(event(1, "Control/Typing"));
+        queue.offer(event(2, "Control/Typing"));
+        queue.offer(event(3, "Control/ClearTyping"));
+        assertEquals(2, queue.size());
+        assertEquals(2, queue.dropped());
+
+        Thread poller = new Thread(() -> {
+            try {
+                queue.offer(event(4, "RichText"));
+            } catch (Exception ignored) {
+            }
+        });
+        poller.start();
+        poller.join(200);
+        assertTrue("Poller should block while the queue is full", poller.isAlive());
+        release.countDown();
+        poller.join(5000);
+        assertEquals(Thread.State.TERMINATED, poller.getState());
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,58 @@
+package com.samczsun.skype4j;
+
+import com.samczsun.skype4j.internal.ImageCache;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class ImageCacheTest {
+    @Test
+    public void testByteBudget() {
+        ImageCache cache = new ImageCache(100, null);
+        AtomicInteger loads = new AtomicInteger();
+        byte[] a = cache.get("a", () -> bytes(loads, 60));
+        assertSame(a, cache.get("a", () -> bytes(loads, 60)));
+        cache.get("b", () -> bytes(loads, 60));
+        assertEquals(60, cache.size());
+        cache.get("a", () -> bytes(loads, 60));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void testDiskTier() throws Exception {
+        Path directory = Files.createTempDirectory("skype4j");
+        ImageCache cache = new ImageCache(0, directory);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("a", () -> bytes(loads, 10));
+        assertEquals(0, cache.size());
+        assertEquals(10, new ImageCache(0, directory).get("a", () -> bytes(loads, 20)).length);
+        assertEquals(1, loads.get());
+
+        cache.invalidate("a");
+        assertEquals(20, cache.get("a", () -> bytes(loads, 20)).length);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testReadOnly() {
+        ByteBuffer buffer = new ImageCache(100, null).getBuffer("a", () -> new byte[4]);
+        try {
+            buffer.put((byte) 1);
+            fail("Buffer should be read-only");
+        } catch (ReadOnlyBufferException expected) {
+        }
+    }
+
+    private static byte[] bytes(AtomicInteger loads, int size) {
+        loads.incrementAndGet();
+        return new byte[size];
+    }
+}
@@ -0,0 +1,61 @@
+package com.samczsun.skype4j;
+
+import com.eclipsesource.json.JsonObject;
+import com.samczsun.skype4j.internal.utils.JsonStreamReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JsonStreamReaderTest {
+    @Test
+    public void testReadArrayElements() throws Exception {
+        String json = "{ \"skip\": {\"nested\": [1, \"]}\", {\"a\": null}]}, \"c\\\"s\" : 1.5e3,"
+                + " \"contacts\": [ {\"id\": \"a\", \"text\": \"x\\\"}\"}, {\"id\": \"b\", \"ok\": true} ],"
+                + " \"_metadata\": {\"syncState\": \"s\"} }";
+        List<String> ids = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        JsonObject metadata = null;
+        try (JsonStreamReader reader = new JsonStreamReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                names.add(name);
+                if (name.equals("contacts")) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        ids.add(reader.nextValue().asObject().get("id").asString());
+                    }
+                    reader.endArray();
+                } else if (name.equals("_metadata")) {
+                    metadata = reader.nextValue().asObject();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        Assert.assertEquals(4, names.size());
+        Assert.assertEquals("c\"s", names.get(1));
+        Assert.assertEquals(2, ids.size());
+        Assert.assertEquals("b", ids.get(1));
+        Assert.assertEquals("s", metadata.get("syncState").asString());
+    }
+
+    @Test
+    public void testEmptyArray() throws Exception {
+        try (JsonStreamReader reader = new JsonStreamReader(new ByteArrayInputStream("{\"messages\":[]}".getBytes(StandardCharsets.UTF_8)))) {
+            reader.beginObject();
+            Assert.assertEquals("messages", reader.nextName());
+            reader.beginArray();
+            Assert.assertFalse(reader.hasNext());
+            reader.endArray();
+            Assert.assertFalse(reader.hasNext());
+            reader.endObject();
+            reader.endDocument();
+        }
+    }
+}
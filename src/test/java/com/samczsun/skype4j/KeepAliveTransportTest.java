@@ -0,0 +1,59 @@
+package com.samczsun.skype4j;
+
+import com.samczsun.skype4j.transport.KeepAliveTransport;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import static org.junit.Assert.*;
+
+public class KeepAliveTransportTest {
+    @Test
+    public void testReleaseWithoutResponse() throws Exception {
+        CountingConnection connection = new CountingConnection();
+        new KeepAliveTransport().release(connection, false);
+        assertEquals(0, connection.reads);
+        assertTrue(connection.disconnected);
+    }
+
+    @Test
+    public void testReleaseDrainsResponse() throws Exception {
+        CountingConnection connection = new CountingConnection();
+        new KeepAliveTransport().release(connection, true);
+        assertEquals(1, connection.reads);
+        assertFalse(connection.disconnected);
+    }
+
+    private static class CountingConnection extends HttpURLConnection {
+        private int reads;
+        private boolean disconnected;
+
+        CountingConnection() throws IOException {
+            super(new URL("http://localhost/"));
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            reads++;
+            return new ByteArrayInputStream(new byte[16]);
+        }
+
+        @Override
+        public void connect() {
+        }
+
+        @Override
+        public void disconnect() {
+            disconnected = true;
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.samczsun.skype4j;
+
+import com.samczsun.skype4j.internal.Endpoints;
+import com.samczsun.skype4j.metrics.EndpointStats;
+import com.samczsun.skype4j.metrics.InMemoryMetricsRegistry;
+import com.samczsun.skype4j.metrics.MetricsSnapshot;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsTest {
+    @Test
+    public void testEndpointNames() {
+        assertEquals("CHAT_INFO_URL", Endpoints.CHAT_INFO_URL.name());
+        assertEquals("PROFILE_INFO", Endpoints.PROFILE_INFO.name());
+    }
+
+    @Test
+    public void testRegistry() {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        for (int i = 1; i <= 100; i++) {
+            registry.recordRequest("POLL", "POST", i == 100 ? 503 : 200, 2, 1000, TimeUnit.MILLISECONDS.toNanos(i / 2), TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        registry.recordFailure("POLL", "POST", new IOException(), TimeUnit.MILLISECONDS.toNanos(5));
+
+        MetricsSnapshot snapshot = registry.snapshot();
+        EndpointStats stats = snapshot.getEndpoint("POLL");
+        assertEquals(100, stats.getRequests());
+        assertEquals(1, stats.getFailures());
+        assertEquals(Long.valueOf(99), stats.getStatuses().get(200));
+        assertEquals(Long.valueOf(1), stats.getStatuses().get(503));
+        assertEquals(100000, stats.getBytesIn());
+        assertEquals(200, stats.getBytesOut());
+        assertEquals(101, stats.getLatency().getCount());
+
+        long p50 = TimeUnit.NANOSECONDS.toMillis(stats.getLatency().getPercentile(50));
+        long p99 = TimeUnit.NANOSECONDS.toMillis(stats.getLatency().getPercentile(99));
+        assertTrue("p50 was " + p50, p50 >= 50 && p50 <= 60);
+        assertTrue("p99 was " + p99, p99 >= 99 && p99 <= 100);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), stats.getLatency().getMax());
+    }
+}
@@ -0,0 +1,37 @@
+package com.samczsun.skype4j;
+
+import com.samczsun.skype4j.internal.RateLimiter;
+import com.samczsun.skype4j.transport.EndpointFamily;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RateLimiterTest {
+    @Test
+    public void testParseRetryAfter() {
+        assertEquals(120000, RateLimiter.parseRetryAfter("120"));
+        assertEquals(1000, RateLimiter.parseRetryAfter(null));
+        assertEquals(1000, RateLimiter.parseRetryAfter("soon"));
+        assertEquals(0, RateLimiter.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+    }
+
+    @Test
+    public void testFamilies() {
+        assertEquals(EndpointFamily.MESSAGING, EndpointFamily.forUrl("https://%sclient-s.gateway.messenger.live.com/v1/users/ME"));
+        assertEquals(EndpointFamily.MEDIA, EndpointFamily.forUrl("https://api.asm.skype.com/v1/objects"));
+        assertEquals(EndpointFamily.CONTACTS, EndpointFamily.forUrl("https://api.skype.com/users/self/profile"));
+        assertEquals(EndpointFamily.OTHER, EndpointFamily.forUrl("https://go.trouter.io/v2/a"));
+    }
+
+    @Test
+    public void testLimit() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter();
+        limiter.limit(EndpointFamily.OTHER, 20, 1);
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(EndpointFamily.OTHER);
+        }
+        assertTrue(System.nanoTime() - start >= 90_000_000L);
+    }
+}
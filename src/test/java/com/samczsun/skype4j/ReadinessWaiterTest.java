@@ -0,0 +1,78 @@
+package com.samczsun.skype4j;
+
+import com.samczsun.skype4j.internal.ReadinessWaiter;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ReadinessWaiterTest {
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final ReadinessWaiter waiter = new ReadinessWaiter(scheduler, executor);
+
+    @After
+    public void shutdown() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testReady() throws Exception {
+        AtomicInteger checks = new AtomicInteger();
+        CompletableFuture<String> future = waiter.await(() -> checks.incrementAndGet() == 3 ? "ready" : null, 10000);
+        assertEquals("ready", future.get(5, TimeUnit.SECONDS));
+        assertEquals(3, checks.get());
+    }
+
+    @Test
+    public void testChecksOverlap() throws Exception {
+        // Each check blocks until the other one has started, which only works if they do not share a thread
+        CountDownLatch started = new CountDownLatch(2);
+        Callable<String> check = () -> {
+            started.countDown();
+            return started.await(5, TimeUnit.SECONDS) ? "ready" : null;
+        };
+        CompletableFuture<String> first = waiter.await(check, 10000);
+        CompletableFuture<String> second = waiter.await(check, 10000);
+        assertEquals("ready", first.get(5, TimeUnit.SECONDS));
+        assertEquals("ready", second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        try {
+            waiter.await(() -> null, 250).get(5, TimeUnit.SECONDS);
+            fail("Expected timeout");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        AtomicInteger checks = new AtomicInteger();
+        CompletableFuture<Object> future = waiter.await(() -> {
+            checks.incrementAndGet();
+            return null;
+        }, 10000);
+        Thread.sleep(50);
+        future.cancel(false);
+        int seen = checks.get();
+        Thread.sleep(500);
+        assertEquals(seen, checks.get());
+    }
+}
@@ -0,0 +1,118 @@
+package com.samczsun.skype4j;
+
+import com.samczsun.skype4j.chat.objects.ReceivedFile;
+import com.samczsun.skype4j.events.EventHandler;
+import com.samczsun.skype4j.events.Listener;
+import com.samczsun.skype4j.events.chat.sent.FileReceivedEvent;
+import com.samczsun.skype4j.transport.StandInGateway;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ReceivedFileTest {
+    private static final String OBJECT = "0-standin-file";
+    private static final String GENERIC_FILE = "<URIObject type=\"File.1\" uri=\"https://api.asm.skype.com/v1/objects/" + OBJECT
+            + "\"><OriginalName v=\"data.bin\"/><FileSize v=\"%s\"/></URIObject>";
+
+    @Test(timeout = 60000)
+    public void testDownload() throws Exception {
+        byte[] data = new byte[100 * 1024];
+        new Random(0).nextBytes(data);
+        try (StandInGateway gateway = new StandInGateway("standin").addContact("alice", "Alice").addObject(OBJECT, data).start()) {
+            Skype skype = login(gateway);
+            BlockingQueue<FileReceivedEvent> received = listen(skype);
+            gateway.pushMessage("8:alice", "8:alice", "RichText/Media_GenericFile", String.format(GENERIC_FILE, data.length));
+            FileReceivedEvent event = received.poll(10, TimeUnit.SECONDS);
+            assertNotNull(event);
+            ReceivedFile file = event.getSentFiles().get(0);
+            assertTrue(file.isDownloadable());
+            assertEquals("data.bin", file.getName());
+            assertEquals(data.length, file.getSize());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(data.length, file.download(out));
+            assertArrayEquals(data, out.toByteArray());
+
+            // Answered with 206 Partial Content
+            out.reset();
+            assertEquals(data.length - 1000, file.download(out, 1000));
+            assertArrayEquals(Arrays.copyOfRange(data, 1000, data.length), out.toByteArray());
+
+            // Answered with 416 Range Not Satisfiable
+            out.reset();
+            assertEquals(0, file.download(out, data.length));
+            assertEquals(0, out.size());
+
+            // Answered with the whole object, which has to be skipped locally
+            gateway.ignoreRanges(true);
+            out.reset();
+            assertEquals(data.length - 1000, file.download(out, 1000));
+            assertArrayEquals(Arrays.copyOfRange(data, 1000, data.length), out.toByteArray());
+
+            Path path = Files.createTempFile("skype4j", ".bin");
+            Files.write(path, Arrays.copyOf(data, 5000));
+            assertEquals(data.length - 5000, file.download(path));
+            assertArrayEquals(data, Files.readAllBytes(path));
+
+            gateway.ignoreRanges(false);
+            Files.write(path, Arrays.copyOf(data, 7000));
+            assertEquals(data.length - 7000, file.download(path));
+            assertArrayEquals(data, Files.readAllBytes(path));
+            skype.logout();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testPeerToPeerFile() throws Exception {
+        try (StandInGateway gateway = new StandInGateway("standin").addContact("alice", "Alice").start()) {
+            Skype skype = login(gateway);
+            BlockingQueue<FileReceivedEvent> received = listen(skype);
+            gateway.pushMessage("8:alice", "8:alice", "RichText/Files",
+                    "<files alt=\"\"><file size=\"10\" index=\"0\" tid=\"42\">p2p.txt</file></files>");
+            FileReceivedEvent event = received.poll(10, TimeUnit.SECONDS);
+            assertNotNull(event);
+            ReceivedFile file = event.getSentFiles().get(0);
+            assertFalse(file.isDownloadable());
+            assertEquals("p2p.txt", file.getName());
+            assertEquals(42, file.getTid());
+            try {
+                file.download(new ByteArrayOutputStream());
+                fail("Expected peer to peer files not to be downloadable");
+            } catch (UnsupportedOperationException expected) {
+            }
+            skype.logout();
+        }
+    }
+
+    private static Skype login(StandInGateway gateway) throws Exception {
+        Skype skype = new SkypeBuilder("standin", "pw").withAllResources().withTransport(gateway.createTransport()).build();
+        skype.login();
+        return skype;
+    }
+
+    private static BlockingQueue<FileReceivedEvent> listen(Skype skype) throws Exception {
+        BlockingQueue<FileReceivedEvent> received = new LinkedBlockingQueue<>();
+        skype.getEventDispatcher().registerListener(new Listener() {
+            @EventHandler
+            public void onFile(FileReceivedEvent event) {
+                received.add(event);
+            }
+        });
+        skype.subscribe();
+        return received;
+    }
+}
@@ -0,0 +1,60 @@
+package com.samczsun.skype4j;
+
+import com.samczsun.skype4j.events.EventHandler;
+import com.samczsun.skype4j.events.Listener;
+import com.samczsun.skype4j.events.UnsupportedEvent;
+import com.samczsun.skype4j.internal.RegisteredListener;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RegisteredListenerTest {
+    public static class PublicListener implements Listener {
+        private final List<String> names = new ArrayList<>();
+
+        @EventHandler
+        public void onEvent(UnsupportedEvent event) {
+            if (event.getName().equals("fail")) {
+                throw new IllegalStateException("fail");
+            }
+            names.add(event.getName());
+        }
+    }
+
+    @Test
+    public void testCompiled() throws Exception {
+        PublicListener listener = new PublicListener();
+        RegisteredListener registered = new RegisteredListener(listener, PublicListener.class.getMethod("onEvent", UnsupportedEvent.class));
+        assertTrue(registered.isCompiled());
+        registered.handleEvent(new UnsupportedEvent("first", ""));
+        assertEquals("first", listener.names.get(0));
+        try {
+            registered.handleEvent(new UnsupportedEvent("fail", ""));
+            fail();
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testReflectionFallback() throws Exception {
+        List<String> names = new ArrayList<>();
+        Listener listener = new Listener() {
+            @EventHandler
+            public void onEvent(UnsupportedEvent event) {
+                names.add(event.getName());
+            }
+        };
+        RegisteredListener registered = new RegisteredListener(listener, listener.getClass().getMethod("onEvent", UnsupportedEvent.class));
+        assertFalse(registered.isCompiled());
+        registered.handleEvent(new UnsupportedEvent("first", ""));
+        assertEquals("first", names.get(0));
+    }
+}
@@ -0,0 +1,54 @@
+package com.samczsun.skype4j;
+
+import com.samczsun.skype4j.internal.RequestBody;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RequestBodyTest {
+    @Test
+    public void testFileWithProgress() throws Exception {
+        byte[] data = new byte[200 * 1024 + 17];
+        new Random(1).nextBytes(data);
+        Path file = Files.createTempFile("skype4j", ".bin");
+        try {
+            Files.write(file, data);
+            List<Long> progress = new ArrayList<>();
+            RequestBody body = RequestBody.of(file).withProgress((transferred, total) -> {
+                assertEquals(data.length, total);
+                progress.add(transferred);
+            });
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            body.writeTo(out);
+            assertArrayEquals(data, out.toByteArray());
+            assertEquals(data.length, body.length());
+            assertTrue(body.isRepeatable());
+            assertEquals(4, progress.size());
+            assertEquals(data.length, (long) progress.get(progress.size() - 1));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        RequestBody body = RequestBody.of(new ByteArrayInputStream(new byte[]{1, 2, 3}), -1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        assertArrayEquals(new byte[]{1, 2, 3}, out.toByteArray());
+        assertFalse(body.isRepeatable());
+        assertTrue(body.isStreamed());
+        assertFalse(RequestBody.of(new byte[0]).isStreamed());
+    }
+}
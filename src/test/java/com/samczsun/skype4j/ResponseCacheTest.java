@@ -0,0 +1,31 @@
+package com.samczsun.skype4j;
+
+import com.samczsun.skype4j.internal.ResponseCache;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ResponseCacheTest {
+    @Test
+    public void testEviction() {
+        ResponseCache cache = new ResponseCache(2);
+        cache.put("a", "\"1\"", null, "A");
+        cache.put("b", "\"2\"", null, "B");
+        assertNotNull(cache.get("a"));
+        cache.put("c", null, "Wed, 21 Oct 2015 07:28:00 GMT", "C");
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals("A", cache.get("a").getValue());
+        assertEquals("\"1\"", cache.get("a").getETag());
+    }
+
+    @Test
+    public void testNoValidators() {
+        ResponseCache cache = new ResponseCache(2);
+        cache.put("a", "\"1\"", null, "A");
+        cache.put("a", null, null, "A");
+        assertNull(cache.get("a"));
+    }
+}
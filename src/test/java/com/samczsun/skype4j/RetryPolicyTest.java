@@ -0,0 +1,34 @@
+package com.samczsun.skype4j;
+
+import com.samczsun.skype4j.transport.RetryPolicy;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RetryPolicyTest {
+    @Test
+    public void testDefaults() {
+        RetryPolicy policy = RetryPolicy.defaults();
+        assertTrue(policy.isRetryable(503));
+        assertFalse(policy.isRetryable(500));
+        assertTrue(policy.isRetryable(new SocketTimeoutException()));
+        assertFalse(policy.isRetryable(new IOException()));
+        assertEquals(1, RetryPolicy.none().getMaxAttempts());
+    }
+
+    @Test
+    public void testBackoff() {
+        RetryPolicy policy = RetryPolicy.defaults().withBackoff(100, 1000).withJitter(0);
+        assertEquals(100, policy.getDelay(2));
+        assertEquals(200, policy.getDelay(3));
+        assertEquals(800, policy.getDelay(5));
+        assertEquals(1000, policy.getDelay(10));
+        long jittered = policy.withJitter(0.5).getDelay(3);
+        assertTrue(jittered >= 100 && jittered <= 200);
+    }
+}
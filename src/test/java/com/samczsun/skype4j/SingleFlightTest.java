@@ -0,0 +1,59 @@
+package com.samczsun.skype4j;
+
+import com.samczsun.skype4j.internal.utils.SingleFlight;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest {
+    @Test
+    public void testCoalesce() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] results = new Future<?>[4];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = executor.submit(() -> flight.execute("a", () -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    return 42;
+                }));
+            }
+            while (flight.size() == 0) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            release.countDown();
+            for (Future<?> result : results) {
+                assertEquals(42, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(0, flight.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testException() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        try {
+            flight.execute("a", () -> {
+                throw new IllegalStateException("failed");
+            });
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals(Integer.valueOf(1), flight.execute("a", () -> 1));
+    }
+}
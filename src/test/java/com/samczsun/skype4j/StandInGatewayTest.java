@@ -0,0 +1,324 @@
+package com.samczsun.skype4j;
+
+import com.eclipsesource.json.JsonObject;
+import com.samczsun.skype4j.chat.Chat;
+import com.samczsun.skype4j.events.EventHandler;
+import com.samczsun.skype4j.events.Listener;
+import com.samczsun.skype4j.events.chat.message.MessageReceivedEvent;
+import com.samczsun.skype4j.exceptions.ConnectionException;
+import com.samczsun.skype4j.internal.Endpoints;
+import com.samczsun.skype4j.internal.SkypeImpl;
+import com.samczsun.skype4j.internal.StreamUtils;
+import com.samczsun.skype4j.transport.Exchange;
+import com.samczsun.skype4j.transport.KeepAliveTransport;
+import com.samczsun.skype4j.transport.RecordingTransport;
+import com.samczsun.skype4j.transport.ReplayTransport;
+import com.samczsun.skype4j.transport.RewritingTransport;
+import com.samczsun.skype4j.transport.StandInGateway;
+import com.samczsun.skype4j.transport.Transport;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StandInGatewayTest {
+    private static final URL PROFILE = url("https://api.skype.com/users/self/profile");
+
+    @Test
+    public void testRecordAndReplay() throws Exception {
+        Path directory = Files.createTempDirectory("skype4j");
+        try (StandInGateway gateway = new StandInGateway("standin").start()) {
+            Transport recording = new RecordingTransport(gateway.createTransport(), directory);
+            HttpURLConnection connection = recording.open(PROFILE);
+            String live = StreamUtils.readFully(connection.getInputStream());
+            recording.release(connection);
+            assertEquals("standin", JsonObject.readFrom(live).get("username").asString());
+
+            Transport replay = new ReplayTransport(directory);
+            connection = replay.open(PROFILE);
+            assertEquals(200, connection.getResponseCode());
+            assertEquals(live, StreamUtils.readFully(connection.getInputStream()));
+            assertEquals(1, Exchange.readAll(directory).size());
+        }
+    }
+
+    @Test
+    public void testPoll() throws Exception {
+        try (StandInGateway gateway = new StandInGateway("standin").withPollTimeout(0).start()) {
+            Transport transport = gateway.createTransport();
+            gateway.pushMessage("8:alice", "8:alice", "Hello");
+            HttpURLConnection connection = transport.open(url("https://client-s.gateway.messenger.live.com/v1/users/ME/endpoints/SELF/subscriptions/0/poll"));
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(new byte[0]);
+            }
+            try (InputStream in = connection.getInputStream()) {
+                JsonObject event = JsonObject.readFrom(StreamUtils.readFully(in)).get("eventMessages").asArray().get(0).asObject();
+                assertEquals("NewMessage", event.get("resourceType").asString());
+                assertEquals("Hello", event.get("resource").asObject().get("content").asString());
+            }
+            assertEquals(0, gateway.getPendingEvents());
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testTokenRefreshKeepsPolling() throws Exception {
+        // Tokens which expire within 30 minutes are refreshed right after logging in
+        try (StandInGateway gateway = new StandInGateway("standin").addContact("alice", "Alice")
+                .withTokenLifetime(TimeUnit.MINUTES.toMillis(20)).start()) {
+            Skype skype = new SkypeBuilder("standin", "pw").withAllResources().withTransport(gateway.createTransport()).build();
+            BlockingQueue<MessageReceivedEvent> received = new LinkedBlockingQueue<>();
+            skype.login();
+            skype.getEventDispatcher().registerListener(new Listener() {
+                @EventHandler
+                public void onMessage(MessageReceivedEvent event) {
+                    received.add(event);
+                }
+            });
+            skype.subscribe();
+            while (gateway.getIssuedTokenCount() < 2) {
+                Thread.sleep(50);
+            }
+            gateway.pushMessage("8:alice", "8:alice", "After refresh");
+            MessageReceivedEvent event = received.poll(10, TimeUnit.SECONDS);
+            assertNotNull(event);
+            assertEquals("After refresh", event.getMessage().getContent().asPlaintext());
+            assertEquals(1, gateway.getSubscriptionCount());
+            skype.logout();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testBackfillAfterRejectedPoll() throws Exception {
+        try (StandInGateway gateway = new StandInGateway("standin").addContact("alice", "Alice").start()) {
+            Skype skype = new SkypeBuilder("standin", "pw").withAllResources().withTransport(gateway.createTransport()).build();
+            BlockingQueue<MessageReceivedEvent> received = new LinkedBlockingQueue<>();
+            skype.login();
+            skype.getEventDispatcher().registerListener(new Listener() {
+                @EventHandler
+                public void onMessage(MessageReceivedEvent event) {
+                    received.add(event);
+                }
+            });
+            skype.subscribe();
+            gateway.pushMessage("8:alice", "8:alice", "Before");
+            assertEquals("Before", received.poll(10, TimeUnit.SECONDS).getMessage().getContent().asPlaintext());
+
+            // Sent while the endpoint has to be registered again, and never delivered through the poll endpoint
+            gateway.addMissedMessage("8:alice", "8:alice", "Missed");
+            gateway.rejectPolls(1);
+            MessageReceivedEvent missed = received.poll(10, TimeUnit.SECONDS);
+            assertNotNull(missed);
+            assertEquals("Missed", missed.getMessage().getContent().asPlaintext());
+
+            gateway.pushMessage("8:alice", "8:alice", "After");
+            assertEquals("After", received.poll(10, TimeUnit.SECONDS).getMessage().getContent().asPlaintext());
+            // The first message is loaded again by the backfill, but must not be delivered twice
+            assertNull(received.poll(500, TimeUnit.MILLISECONDS));
+            skype.logout();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testBackfillPages() throws Exception {
+        try (StandInGateway gateway = new StandInGateway("standin").addContact("alice", "Alice").start()) {
+            Skype skype = new SkypeBuilder("standin", "pw").withAllResources().withTransport(gateway.createTransport()).build();
+            BlockingQueue<MessageReceivedEvent> received = new LinkedBlockingQueue<>();
+            skype.login();
+            skype.getEventDispatcher().registerListener(new Listener() {
+                @EventHandler
+                public void onMessage(MessageReceivedEvent event) {
+                    received.add(event);
+                }
+            });
+            skype.subscribe();
+            gateway.pushMessage("8:alice", "8:alice", "Before");
+            assertEquals("Before", received.poll(10, TimeUnit.SECONDS).getMessage().getContent().asPlaintext());
+
+            // More than fit on one page of history
+            for (int i = 0; i < 250; i++) {
+                gateway.addMissedMessage("8:alice", "8:alice", "Missed " + i);
+            }
+            gateway.rejectPolls(1);
+            for (int i = 0; i < 250; i++) {
+                MessageReceivedEvent missed = received.poll(10, TimeUnit.SECONDS);
+                assertNotNull(missed);
+                assertEquals("Missed " + i, missed.getMessage().getContent().asPlaintext());
+            }
+            assertNull(received.poll(500, TimeUnit.MILLISECONDS));
+            skype.logout();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testBackfillFindsNewConversations() throws Exception {
+        try (StandInGateway gateway = new StandInGateway("standin").addContact("alice", "Alice").start()) {
+            Skype skype = new SkypeBuilder("standin", "pw").withAllResources().withTransport(gateway.createTransport()).build();
+            BlockingQueue<MessageReceivedEvent> received = new LinkedBlockingQueue<>();
+            skype.login();
+            skype.getEventDispatcher().registerListener(new Listener() {
+                @EventHandler
+                public void onMessage(MessageReceivedEvent event) {
+                    received.add(event);
+                }
+            });
+            skype.subscribe();
+            gateway.pushMessage("8:alice", "8:alice", "Before");
+            assertEquals("Before", received.poll(10, TimeUnit.SECONDS).getMessage().getContent().asPlaintext());
+
+            // A group chat the client has never seen, created while the endpoint has to be registered again
+            String group = "19:missed@thread.skype";
+            gateway.addChat(group, "8:alice");
+            gateway.addMissedMessage(group, "8:alice", "In a new chat");
+            gateway.rejectPolls(1);
+            MessageReceivedEvent missed = received.poll(10, TimeUnit.SECONDS);
+            assertNotNull(missed);
+            assertEquals("In a new chat", missed.getMessage().getContent().asPlaintext());
+            assertEquals(group, missed.getChat().getIdentity());
+            assertNull(received.poll(500, TimeUnit.MILLISECONDS));
+            skype.logout();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testPollBackoff() throws Exception {
+        try (StandInGateway gateway = new StandInGateway("standin").addContact("alice", "Alice").failPolls(3).start()) {
+            Skype skype = new SkypeBuilder("standin", "pw").withAllResources().withTransport(gateway.createTransport()).build();
+            BlockingQueue<MessageReceivedEvent> received = new LinkedBlockingQueue<>();
+            skype.login();
+            skype.getEventDispatcher().registerListener(new Listener() {
+                @EventHandler
+                public void onMessage(MessageReceivedEvent event) {
+                    received.add(event);
+                }
+            });
+            skype.subscribe();
+            // Waits 1 and 2 seconds after the first two failures
+            Thread.sleep(2000);
+            assertTrue(gateway.getPollCount() <= 2);
+            gateway.pushMessage("8:alice", "8:alice", "After failures");
+            MessageReceivedEvent event = received.poll(15, TimeUnit.SECONDS);
+            assertNotNull(event);
+            assertEquals("After failures", event.getMessage().getContent().asPlaintext());
+            skype.logout();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testContactListRevalidated() throws Exception {
+        try (StandInGateway gateway = new StandInGateway("standin").addContact("alice", "Alice").start()) {
+            Skype skype = new SkypeBuilder("standin", "pw").withAllResources().withTransport(gateway.createTransport()).build();
+            skype.login();
+            assertEquals(0, gateway.getConditionalRequestCount());
+            // The contact list is streamed, and its ETag must still be sent once it has been read
+            skype.loadAllContacts();
+            assertEquals(1, gateway.getConditionalRequestCount());
+            assertNotNull(skype.getContact("8:alice"));
+            skype.logout();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testBytesInCountsChunkedResponses() throws Exception {
+        try (StandInGateway gateway = new StandInGateway("standin").addContact("alice", "Alice")
+                .withChunkedResponses(true).start()) {
+            Skype skype = new SkypeBuilder("standin", "pw").withAllResources().withTransport(gateway.createTransport()).build();
+            // The contact list loaded while logging in is streamed, so it is read after the request has been recorded
+            skype.login();
+            long bytesIn = skype.getMetricsRegistry().snapshot().getEndpoint("GET_ALL_CONTACTS").getBytesIn();
+            assertTrue("Read " + bytesIn + " bytes", bytesIn > "{\"contacts\":[]}".length());
+            skype.logout();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testSendFiles() throws Exception {
+        Path directory = Files.createTempDirectory("skype4j");
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            files.add(Files.write(directory.resolve("file" + i + ".txt"), new byte[]{(byte) i}).toFile());
+        }
+        List<JsonObject> posted = new CopyOnWriteArrayList<>();
+        try (StandInGateway gateway = new StandInGateway("standin").addContact("alice", "Alice").withUploadDelay(200)
+                .onMessageSent(posted::add).start()) {
+            Skype skype = new SkypeBuilder("standin", "pw").withAllResources().withTransport(gateway.createTransport()).build();
+            skype.login();
+            Chat chat = skype.getOrLoadChat("8:alice");
+            chat.sendFiles(files);
+            assertTrue(gateway.getMaxConcurrentUploads() > 1);
+            assertEquals(files.size(), posted.size());
+            Set<String> clientIds = new HashSet<>();
+            for (int i = 0; i < files.size(); i++) {
+                assertTrue(posted.get(i).get("content").asString().contains("<OriginalName v=\"file" + i + ".txt\"/>"));
+                clientIds.add(posted.get(i).get("clientmessageid").asString());
+            }
+            assertEquals(files.size(), clientIds.size());
+
+            // Files before the failed one are posted, the ones after it are not
+            posted.clear();
+            gateway.failUpload("file2.txt");
+            try {
+                chat.sendFiles(files);
+                fail("Expected the upload of file2.txt to fail");
+            } catch (ConnectionException expected) {
+            }
+            assertEquals(2, posted.size());
+            assertTrue(posted.get(1).get("content").asString().contains("<OriginalName v=\"file1.txt\"/>"));
+            skype.logout();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testRedirectHandledByCaller() throws Exception {
+        // Guest login answers this redirect with its own exception instead of following it
+        try (StandInGateway gateway = new StandInGateway("standin").rejectGuests(true).start()) {
+            Skype skype = new SkypeBuilder("standin", "pw").withAllResources().withTransport(gateway.createTransport()).build();
+            skype.login();
+            JsonObject result = Endpoints.NEW_GUEST
+                    .open((SkypeImpl) skype)
+                    .as(JsonObject.class)
+                    .on(303, connection -> new JsonObject().add("handled", true))
+                    .expect(201, "While logging in")
+                    .post(new JsonObject());
+            assertTrue(result.get("handled").asBoolean());
+            skype.logout();
+        }
+    }
+
+    @Test
+    public void testResolve() throws Exception {
+        Transport transport = new RewritingTransport(new KeepAliveTransport(), "http://127.0.0.1:1/");
+        URL resolved = transport.resolve(PROFILE);
+        assertEquals("http://127.0.0.1:1/api.skype.com/users/self/profile", resolved.toString());
+        assertEquals(resolved.toString(), transport.resolve(resolved).toString());
+    }
+
+    private static URL url(String url) {
+        try {
+            return new URL(url);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
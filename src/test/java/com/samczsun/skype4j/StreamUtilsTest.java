@@ -5,6 +5,11 @@ import junit.framework.TestCase;
 import org.junit.*;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Created by sam on 2015-07-10.
@@ -17,4 +22,24 @@ public class StreamUtilsTest extends TestCase {
         ByteArrayInputStream stream = new ByteArrayInputStream(data.getBytes());
         Assert.assertEquals(StreamUtils.readFully(stream), data);
     }
-}
\ No newline at end of file
+
+    @org.junit.Test
+    public void testDecode() throws Exception {
+        String data = "This is a compressed test";
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(gzip)) {
+            out.write(data.getBytes("UTF-8"));
+        }
+        Assert.assertEquals(data, StreamUtils.readFully(StreamUtils.decode("gzip", new ByteArrayInputStream(gzip.toByteArray()))));
+
+        for (boolean nowrap : new boolean[]{false, true}) {
+            ByteArrayOutputStream deflate = new ByteArrayOutputStream();
+            try (OutputStream out = new DeflaterOutputStream(deflate, new Deflater(Deflater.DEFAULT_COMPRESSION, nowrap))) {
+                out.write(data.getBytes("UTF-8"));
+            }
+            Assert.assertEquals(data, StreamUtils.readFully(StreamUtils.decode("deflate", new ByteArrayInputStream(deflate.toByteArray()))));
+        }
+
+        Assert.assertEquals(data, StreamUtils.readFully(StreamUtils.decode(null, new ByteArrayInputStream(data.getBytes("UTF-8")))));
+    }
+}
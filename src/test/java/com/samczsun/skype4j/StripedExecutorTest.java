@@ -0,0 +1,60 @@
+package com.samczsun.skype4j;
+
+import com.samczsun.skype4j.internal.utils.StripedExecutor;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StripedExecutorTest {
+    @Test
+    public void testOrderWithinKey() throws Exception {
+        StripedExecutor executor = new StripedExecutor(Executors.newFixedThreadPool(4), 16);
+        List<List<Integer>> seen = new ArrayList<>();
+        for (int key = 0; key < 8; key++) {
+            seen.add(Collections.synchronizedList(new ArrayList<>()));
+        }
+        CountDownLatch done = new CountDownLatch(8 * 500);
+        for (int i = 0; i < 500; i++) {
+            for (int key = 0; key < 8; key++) {
+                int value = i;
+                List<Integer> list = seen.get(key);
+                executor.execute("19:" + key + "@thread.skype", () -> {
+                    list.add(value);
+                    done.countDown();
+                });
+            }
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (List<Integer> list : seen) {
+            for (int i = 0; i < 500; i++) {
+                assertEquals(i, (int) list.get(i));
+            }
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSlowKeyDoesNotBlockOthers() throws Exception {
+        StripedExecutor executor = new StripedExecutor(Executors.newFixedThreadPool(2), 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch other = new CountDownLatch(1);
+        executor.execute(0, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        executor.execute(1, other::countDown);
+        assertTrue(other.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        executor.shutdownNow();
+    }
+}
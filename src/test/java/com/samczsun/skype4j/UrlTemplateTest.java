@@ -0,0 +1,35 @@
+
+package com.samczsun.skype4j;
+
+import com.samczsun.skype4j.internal.UrlTemplate;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class UrlTemplateTest {
+    @Test
+    public void testMatchesFormat() {
+        String template = "https://%sclient-s.gateway.messenger.live.com/v1/users/ME/conversations/%s/properties?name=%s";
+        UrlTemplate compiled = UrlTemplate.compile(template);
+        Assert.assertEquals(3, compiled.getSlotCount());
+        Assert.assertEquals(String.format(template, "db3-", "19:abc@thread.skype", "topic"),
+                compiled.renderWithPrefix("db3-", "19:abc@thread.skype", "topic"));
+        Assert.assertEquals(String.format(template, "", 1, 2L), compiled.render("", 1, 2L));
+    }
+
+    @Test
+    public void testEscapedPercent() {
+        String template = "https://contacts.skype.com/contacts/v1/users/%s/contacts?$filter=id%%20eq%%20%%27%s%%27";
+        Assert.assertEquals(String.format(template, "me", "them"), UrlTemplate.compile(template).render("me", "them"));
+    }
+
+    @Test
+    public void testExtraArgumentsIgnored() {
+        String template = "https://contacts.skype.com/contacts/v2/users/SELF?delta=&reason=default";
+        Assert.assertEquals(template, UrlTemplate.compile(template).render("user", "notification"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingArgument() {
+        UrlTemplate.compile("https://api.skype.com/users/%s/%s").render("only");
+    }
+}